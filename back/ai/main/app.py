@@ -1,13 +1,14 @@
 import os
-import base64
+import json
 import requests
-from flask import Flask, request, jsonify
+from flask import Flask, request, jsonify, Response, stream_with_context
 import google.generativeai as genai
 from dotenv import load_dotenv
 import re
 import io
 import fitz  # PyMuPDF
 from flasgger import Swagger, swag_from
+from google.api_core import exceptions as google_exceptions
 
 # .env 파일 자동 로드
 load_dotenv()
@@ -44,40 +45,30 @@ model = genai.GenerativeModel("gemini-2.0-flash")
 API_URL = os.environ.get('API_URL')
 SERVER_PORT = int(os.environ.get('SERVER_PORT'))
 
-def get_base64_image(image_url):
-    # 상대경로면 절대 URL로 보정
-    if image_url.startswith('/'):
-        image_url = API_URL + image_url
+def download(url):
+    # multipart로 파일을 받지 못한 URL(예전 JSON 요청, 외부 링크)만 API에서 내려받는다
+    if url.startswith('/'):
+        url = API_URL + url
     try:
-        print(f"[DEBUG] Downloading image: {image_url}")
-        response = requests.get(image_url)
+        print(f"[DEBUG] Downloading: {url}")
+        response = requests.get(url, timeout=30)
         response.raise_for_status()
-        return base64.b64encode(response.content).decode('utf-8')
+        return response.content, response.headers.get('Content-Type')
     except Exception as e:
-        print(f"[ERROR] Image download failed: {e}")
-        return None
+        print(f"[ERROR] Download failed: {e}")
+        return None, None
 
-def get_base64_images(image_urls):
-    b64s = []
-    for url in image_urls:
-        b64 = get_base64_image(url)
-        if b64:
-            b64s.append(b64)
-    return b64s
-
-def get_base64_pdf(pdf_url):
-    # 상대경로면 절대 URL로 보정
-    if pdf_url.startswith('/'):
-        pdf_url = API_URL + pdf_url
-    try:
-        print(f"[DEBUG] Downloading PDF: {pdf_url}")
-        response = requests.get(pdf_url)
-        response.raise_for_status()
-        pdf_bytes = response.content
+def image_part(data, mime_type):
+    # 실제 형식을 그대로 전달 (알 수 없으면 JPEG로 간주)
+    if not mime_type or not mime_type.startswith('image/'):
+        mime_type = 'image/jpeg'
+    return {"mime_type": mime_type, "data": data}
 
+def pdf_to_image_parts(pdf_bytes):
+    try:
         # PDF를 이미지로 변환 (PyMuPDF 사용)
         pdf_document = fitz.open(stream=pdf_bytes, filetype="pdf")
-        b64s = []
+        parts = []
 
         for page_num in range(len(pdf_document)):
             page = pdf_document.load_page(page_num)
@@ -86,19 +77,68 @@ def get_base64_pdf(pdf_url):
             pix = page.get_pixmap(matrix=mat)
 
             # 이미지 데이터를 JPEG로 변환
-            img_data = pix.tobytes("jpeg")
-            b64 = base64.b64encode(img_data).decode('utf-8')
-            b64s.append(b64)
+            parts.append(image_part(pix.tobytes("jpeg"), "image/jpeg"))
             print(f"[DEBUG] Converted PDF page {page_num+1} to image")
 
         pdf_document.close()
 
-        return b64s
+        return parts
     except Exception as e:
-        print(f"[ERROR] PDF download or conversion failed: {e}")
+        print(f"[ERROR] PDF conversion failed: {e}")
         return None
 
-def get_summary(note_text, image_urls=None, pdf_url=None):
+def pdf_page_parts(pdf_pages, page_files):
+    # 페이지 순서대로 텍스트/이미지를 섞어 모델 입력을 만든다 (이미지 파트는 이미지 페이지 순서대로 옴)
+    page_files = iter(page_files)
+    parts = []
+    for page in pdf_pages:
+        if page.get('text'):
+            parts.append(f"[{page['page']}페이지]\n{page['text']}")
+        else:
+            f = next(page_files, None)
+            if f is None:
+                continue
+            parts.append(f"[{page['page']}페이지]")
+            parts.append(image_part(f.read(), f.mimetype))
+    return parts or None
+
+def load_media():
+    """
+    요청에서 (meta, 모델 입력 파트 목록)을 꺼낸다.
+    multipart 요청은 파일이 본문에 실려 오고(meta 파트 + images/pages/pdf 파일), JSON 요청은 예전처럼 URL을 내려받는다.
+    이미지가 있으면 이미지만, 없으면 PDF를 쓴다. API가 전처리한 PDF(meta.pdfPages)는 텍스트 페이지는 텍스트로,
+    스캔 페이지만 이미지로 받으므로 여기서 렌더링하지 않는다.
+    자료가 아예 없으면 [], 받거나 변환하지 못했으면 None.
+    """
+    if request.mimetype == 'multipart/form-data':
+        data = json.loads(request.form.get('meta') or '{}')
+        images = [image_part(f.read(), f.mimetype) for f in request.files.getlist('images')]
+        pdf_file = request.files.get('pdf')
+        pdf_bytes = pdf_file.read() if pdf_file else None
+    else:
+        data = request.json or {}
+        images, pdf_bytes = [], None
+    image_urls = data.get('imageUrls') or []
+    pdf_url = data.get('pdfUrl')
+    pdf_pages = data.get('pdfPages')
+    has_media = bool(images or image_urls or pdf_bytes or pdf_url or pdf_pages)
+
+    for url in image_urls:
+        content, mime_type = download(url)
+        if content:
+            images.append(image_part(content, mime_type))
+    if images:
+        return data, images
+    if pdf_pages:
+        return data, pdf_page_parts(pdf_pages, request.files.getlist('pages'))
+    if pdf_bytes is None and pdf_url:
+        pdf_bytes, _ = download(pdf_url)
+    if pdf_bytes:
+        return data, pdf_to_image_parts(pdf_bytes)
+    return data, (None if has_media else [])
+
+# 프롬프트를 바꾸면 API의 ai.prompt-version도 올려야 예전 결과 캐시가 무효화된다
+def summary_contents(note_text, media):
     summary_prompt = (
 """
 [역할]
@@ -121,29 +161,28 @@ def get_summary(note_text, image_urls=None, pdf_url=None):
 {note_text}
 """
     )
-    contents = [summary_prompt]
-    if image_urls:
-        b64s = get_base64_images(image_urls)
-        for b64 in b64s:
-            contents.append({"mime_type": "image/png", "data": b64})
-    elif pdf_url:
-        b64s = get_base64_pdf(pdf_url)
-        if not b64s:
-            return None
-        for b64 in b64s:
-            contents.append({"mime_type": "image/jpeg", "data": b64})
-    else:
+    return [summary_prompt] + media
+
+def get_summary(note_text, media):
+    if not media:
         return None
-    response = model.generate_content(contents)
+    response = model.generate_content(summary_contents(note_text, media))
     return response.text.strip()
 
+def stream_summary(note_text, media):
+    # 모델이 만드는 대로 조각(chunk) 단위로 돌려준다
+    for chunk in model.generate_content(summary_contents(note_text, media), stream=True):
+        text = getattr(chunk, 'text', '')
+        if text:
+            yield text
+
 def extract_json_array(text):
     match = re.search(r'\[.*\]', text, re.DOTALL)
     if match:
         return match.group(0)
     return None
 
-def get_quiz(note_text, image_urls=None, pdf_url=None):
+def get_quiz(note_text, media):
     quiz_prompt = (
         """
 [역할]
@@ -244,20 +283,10 @@ def get_quiz(note_text, image_urls=None, pdf_url=None):
     contents = [quiz_prompt]
     if note_text:
         contents.append(note_text)
-    if image_urls:
-        b64s = get_base64_images(image_urls)
-        for b64 in b64s:
-            contents.append({"mime_type": "image/png", "data": b64})
-    elif pdf_url:
-        b64s = get_base64_pdf(pdf_url)
-        if not b64s:
-            return []
-        for b64 in b64s:
-            contents.append({"mime_type": "image/jpeg", "data": b64})
-    else:
+    if not media:
         return []
+    contents.extend(media)
     response = model.generate_content(contents)
-    import json
     json_str = extract_json_array(response.text)
     try:
         quiz_list = json.loads(json_str) if json_str else []
@@ -265,28 +294,32 @@ def get_quiz(note_text, image_urls=None, pdf_url=None):
         quiz_list = []
     return quiz_list
 
+@app.errorhandler(google_exceptions.ResourceExhausted)
+def handle_rate_limited(e):
+    # 모델 rate limit은 429로 알려 API가 동시 호출 수를 줄이고 나중에 다시 시도하게 한다
+    print(f"[WARN] Model rate limited: {e}")
+    response = jsonify({'error': 'AI model rate limited'})
+    response.headers['Retry-After'] = os.environ.get('RATE_LIMIT_RETRY_AFTER', '30')
+    return response, 429
+
 @app.route('/generate', methods=['POST'])
 @swag_from({
     'tags': ['AI Generation'],
     'summary': '노트 내용을 바탕으로 요약 및 퀴즈 생성',
-    'description': '손글씨 노트의 텍스트, 이미지, PDF를 분석하여 AI 요약과 퀴즈를 생성합니다.',
+    'description': '손글씨 노트의 텍스트, 이미지, PDF를 분석하여 AI 요약과 퀴즈를 생성합니다. '
+                   'multipart/form-data로 파일을 직접 받으며, 예전 JSON(imageUrls/pdfUrl) 요청도 처리합니다.',
+    'consumes': ['multipart/form-data', 'application/json'],
     'parameters': [
         {
-            'name': 'noteId',
-            'in': 'body',
+            'name': 'meta',
+            'in': 'formData',
+            'type': 'string',
             'required': True,
-            'schema': {
-                'type': 'object',
-                'properties': {
-                    'noteId': {'type': 'integer'},
-                    'title': {'type': 'string'},
-                    'keywords': {'type': 'array', 'items': {'type': 'string'}},
-                    'description': {'type': 'string'},
-                    'imageUrls': {'type': 'array', 'items': {'type': 'string'}},
-                    'pdfUrl': {'type': 'string'}
-                }
-            }
-        }
+            'description': 'JSON: noteId, title, keywords, description, (선택) imageUrls, pdfUrl, pdfPages'
+        },
+        {'name': 'images', 'in': 'formData', 'type': 'file', 'description': '노트 이미지 (여러 개)'},
+        {'name': 'pages', 'in': 'formData', 'type': 'file', 'description': 'API가 전처리한 PDF의 스캔 페이지 이미지 (meta.pdfPages 순서)'},
+        {'name': 'pdf', 'in': 'formData', 'type': 'file', 'description': '이미지가 없을 때 사용할 PDF (전처리하지 못한 경우)'}
     ],
     'responses': {
         200: {
@@ -304,18 +337,15 @@ def get_quiz(note_text, image_urls=None, pdf_url=None):
     }
 })
 def generate():
-    data = request.json
+    data, media = load_media()
     note_text = data.get('description', '')
-    image_urls = data.get('imageUrls', [])
-    pdf_url = data.get('pdfUrl', None)
-    if image_urls:
-        summary = get_summary(note_text, image_urls=image_urls)
-        quiz = get_quiz(summary, image_urls=image_urls)
-    elif pdf_url:
-        summary = get_summary(note_text, pdf_url=pdf_url)
-        quiz = get_quiz(summary, pdf_url=pdf_url)
-    else:
+    if media == []:
         return jsonify({'error': 'imageUrls or pdfUrl is required'}), 400
+    if media is None:
+        return jsonify({'error': 'Image download or conversion failed'}), 400
+    # PDF 변환 결과를 요약과 퀴즈에 함께 쓴다
+    summary = get_summary(note_text, media)
+    quiz = get_quiz(summary, media)
     if summary is None or quiz is None:
         return jsonify({'error': 'Image download or conversion failed'}), 400
 
@@ -327,13 +357,62 @@ def generate():
         'quiz': quiz
     })
 
+@app.route('/generate/stream', methods=['POST'])
+def generate_stream():
+    """
+    /generate와 같은 입력을 받아 NDJSON(한 줄에 JSON 하나)으로 결과를 흘려보낸다.
+    {"type": "summary", "delta": "..."} 를 요약 조각마다 보내고, 마지막에
+    {"type": "result", "content": "...", "quiz": [...]} 를 보낸다.
+    스트림 도중 실패하면 {"type": "error", "status": 429|500, "error": "..."} 로 끝난다.
+    ---
+    tags:
+      - AI Generation
+    consumes:
+      - multipart/form-data
+    produces:
+      - application/x-ndjson
+    responses:
+      200:
+        description: NDJSON 이벤트 스트림
+      400:
+        description: 잘못된 요청
+    """
+    data, media = load_media()
+    note_text = data.get('description', '')
+    if media == []:
+        return jsonify({'error': 'imageUrls or pdfUrl is required'}), 400
+    if media is None:
+        return jsonify({'error': 'Image download or conversion failed'}), 400
+
+    def line(event):
+        return json.dumps(event, ensure_ascii=False) + '\n'
+
+    def events():
+        try:
+            parts = []
+            for delta in stream_summary(note_text, media):
+                parts.append(delta)
+                yield line({'type': 'summary', 'delta': delta})
+            summary = ''.join(parts).strip()
+            quiz = get_quiz(summary, media)
+            yield line({'type': 'result', 'content': summary, 'quiz': quiz or []})
+        except google_exceptions.ResourceExhausted as e:
+            # 헤더는 이미 나갔으므로 429는 이벤트로 알린다
+            print(f"[WARN] Model rate limited while streaming: {e}")
+            yield line({'type': 'error', 'status': 429, 'error': 'AI model rate limited',
+                        'retryAfter': int(os.environ.get('RATE_LIMIT_RETRY_AFTER', '30'))})
+        except Exception as e:
+            print(f"[ERROR] Streaming generation failed: {e}")
+            yield line({'type': 'error', 'status': 500, 'error': str(e)})
+
+    return Response(stream_with_context(events()), mimetype='application/x-ndjson',
+                    headers={'X-Accel-Buffering': 'no', 'Cache-Control': 'no-cache'})
+
 @app.route('/api/ai/quiz/generate', methods=['POST'])
 def api_generate_quiz():
-    data = request.json
+    data, media = load_media()
     note_text = data.get('note_text', '')
-    image_urls = data.get('imageUrls', [])
-    pdf_url = data.get('pdfUrl', None)
-    quiz = get_quiz(note_text, image_urls=image_urls, pdf_url=pdf_url)
+    quiz = get_quiz(note_text, media or [])
     print("quiz: ", quiz)
     if quiz is None:
         return jsonify({'error': '퀴즈 생성 실패'}), 400
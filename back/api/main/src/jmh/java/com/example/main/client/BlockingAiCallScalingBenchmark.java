@@ -0,0 +1,124 @@
+package com.example.main.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.client.RestClient;
+
+import com.example.main.dto.GenerationInput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 AI 응답을 기다리는 {@link AiClient#generate} 호출 {@code concurrentCalls}건을 한꺼번에 처리하는 시간 비교.
+ * 실제 호출 경로(멀티파트 본문, RestClient, 서킷 브레이커, 리미터)를 그대로 지나간다.
+ * platformThreadPool: 예전 구조(Tomcat 기본 200개 같은 고정 크기 플랫폼 스레드 풀)
+ * virtualThreads: 호출마다 가상 스레드 (spring.threads.virtual.enabled, 생성 워커)
+ *
+ * <p>주의: 운영 설정(ai.limiter.max-limit 16, max-queue 8)에서는 AI 동시 호출이 16개를 넘지 않고
+ * 나머지는 바로 거절되므로 1k 동시 호출 자체가 생기지 않는다. 여기서는 리미터를 {@code concurrentCalls}로 열어
+ * 스레드 모델만 비교한다. 즉 이 수치는 리미터를 크게 올렸을 때(또는 리미터가 없는 경로)에만 의미가 있다.
+ *
+ * 로컬 AI 서버 대역은 요청마다 {@code aiLatencyMs}만큼 기다렸다 응답한다.
+ * 결과는 한 묶음 처리 시간(ms)이며, 처리량 = concurrentCalls / 시간.
+ * 풀 방식은 약 concurrentCalls / platformPoolSize × aiLatencyMs, 가상 스레드는 aiLatencyMs 근처가 기대값이다.
+ *
+ * ./gradlew jmh -PjmhIncludes=BlockingAiCallScalingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockingAiCallScalingBenchmark {
+    @Param({"1000", "2000"})
+    private int concurrentCalls;
+
+    @Param({"200"})
+    private int aiLatencyMs;
+
+    @Param({"200"})
+    private int platformPoolSize;
+
+    private HttpServer aiServer;
+    private AiClient aiClient;
+    private GenerationInput input;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        aiServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        aiServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        byte[] body = "{\"content\":\"요약\",\"quiz\":[]}".getBytes(StandardCharsets.UTF_8);
+        aiServer.createContext("/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(aiLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        aiServer.start();
+        // 미디어 없는 입력이라 업로드/PDF 서비스는 쓰이지 않는다.
+        // 리미터는 한 묶음 전체를 받도록 열고, 서킷 브레이커는 운영 값 그대로
+        aiClient = new AiClient(RestClient.builder(), null, null, new ObjectMapper(),
+                "http://127.0.0.1:" + aiServer.getAddress().getPort(),
+                3000, 60000,
+                5, 30000,
+                concurrentCalls, 1, concurrentCalls, concurrentCalls, 60000, 2.0,
+                new SimpleMeterRegistry());
+        input = new GenerationInput(1L, "운영체제", List.of("스케줄링"), "설명", null, List.of(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aiServer.stop(0);
+    }
+
+    @Benchmark
+    public int platformThreadPool() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(platformPoolSize);
+        try {
+            return burst(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public int virtualThreads() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return burst(executor);
+        }
+    }
+
+    private int burst(ExecutorService executor) throws Exception {
+        List<Future<Boolean>> calls = new ArrayList<>(concurrentCalls);
+        for (int i = 0; i < concurrentCalls; i++) {
+            calls.add(executor.submit(() -> aiClient.generate(input) != null));
+        }
+        int ok = 0;
+        for (Future<Boolean> call : calls) {
+            if (call.get()) ok++;
+        }
+        if (ok != concurrentCalls) {
+            throw new IllegalStateException(ok + "/" + concurrentCalls + " calls succeeded");
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.main.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나의 토큰 검증 비용 비교.
+ * legacy: 이전 JwtUtil처럼 호출마다 키/파서를 새로 만들고 같은 토큰을 세 번 파싱
+ * verify: 미리 만든 파서로 한 번 파싱
+ *
+ * ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerifyBenchmark {
+    private static final String SECRET = "my-secret-key-local-key-1234567890";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L);
+        token = jwtUtil.generateToken(User.withUsername("benchuser").password("x").roles("USER").build());
+    }
+
+    @Benchmark
+    public Object legacy() {
+        String username = legacyClaims().getSubject();         // 필터의 extractUsername
+        boolean sameUser = legacyClaims().getSubject().equals(username); // validateToken의 extractUsername
+        boolean expired = legacyClaims().getExpiration().before(new Date()); // isTokenExpired
+        return sameUser && !expired ? username : null;
+    }
+
+    @Benchmark
+    public Object verify() {
+        return jwtUtil.verify(token).username();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object verifyContended() {
+        return jwtUtil.verify(token).username();
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
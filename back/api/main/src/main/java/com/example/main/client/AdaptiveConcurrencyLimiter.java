@@ -0,0 +1,198 @@
+package com.example.main.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * AI 서버 동시 호출 수를 관측한 지연/오류에 맞춰 조절하는 AIMD 리미터.
+ * <ul>
+ *   <li>정상 응답: 지연이 장기 평균의 {@code latencyTolerance}배 이하면 한도를 1/limit씩(한도만큼 성공하면 +1) 늘린다.</li>
+ *   <li>느린 응답: 한도를 {@code latencyBackoff}배로 줄인다. 평균 지연(한 RTT) 동안에는 한 번만 줄이므로
+ *       느린 응답이 한꺼번에 몰려도 한도가 {@code latencyBackoff}^N으로 무너지지 않는다.
+ *       (AI 지연은 입력 크기에 따라 크게 달라서 큰 노트 하나하나를 과부하로 보지 않기 위함)</li>
+ *   <li>타임아웃/5xx/429: 한도를 절반으로 줄인다.</li>
+ * </ul>
+ * 한도가 차면 최대 {@code maxQueue}개까지만 기다리고, 그 이상은 즉시 거절한다.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double RTT_SMOOTHING = 0.05; // 장기 평균 지연: 최근 ~20건
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final double latencyTolerance;
+    private final double latencyBackoff;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double averageRttNanos;
+    private long lastDecreaseNanos;
+    private boolean decreased; // 지연으로 한도를 줄인 적이 있는지 (lastDecreaseNanos가 유효한지)
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                                      double latencyTolerance, double latencyBackoff) {
+        this(initialLimit, minLimit, maxLimit, maxQueue, latencyTolerance, latencyBackoff, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                               double latencyTolerance, double latencyBackoff, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.latencyTolerance = latencyTolerance;
+        this.latencyBackoff = latencyBackoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 호출 허가를 얻는다. 한도가 찼으면 최대 {@code timeout}까지 기다린다.
+     * 대기열이 가득 찼거나 시간 안에 자리가 나지 않으면 false.
+     * true를 받은 호출자는 반드시 onSuccess/onDropped/onIgnored 중 하나를 호출해야 한다.
+     */
+    public boolean tryAcquire(Duration timeout) {
+        lock.lock();
+        try {
+            // 기다리는 호출이 있으면 새치기하지 않는다
+            if (queued == 0 && inFlight < currentLimit()) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue) return false;
+            queued++;
+            try {
+                long remaining = timeout.toNanos();
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) return false;
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 응답을 받은 호출. 지연으로 한도를 조정한다.
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (averageRttNanos == 0) {
+                averageRttNanos = latencyNanos;
+            } else if (latencyNanos > averageRttNanos * latencyTolerance) {
+                long now = nanoClock.getAsLong();
+                if (!decreased || now - lastDecreaseNanos >= averageRttNanos) {
+                    limit = Math.max(minLimit, limit * latencyBackoff);
+                    lastDecreaseNanos = now;
+                    decreased = true;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            averageRttNanos += (latencyNanos - averageRttNanos) * RTT_SMOOTHING;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 과부하 신호(타임아웃, 5xx, 429). 한도를 절반으로 줄인다.
+     */
+    public void onDropped() {
+        lock.lock();
+        try {
+            inFlight--;
+            limit = Math.max(minLimit, limit / 2);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 부하와 무관한 실패(4xx 등). 한도는 그대로 두고 자리만 반납한다.
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 지금 바로 시작할 수 있는 호출 수
+     */
+    public int available() {
+        lock.lock();
+        try {
+            return Math.max(0, currentLimit() - inFlight - queued);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 앞에 {@code backlog}건이 있을 때 자리가 나기까지 걸릴 것으로 보이는 시간 (Retry-After 계산용)
+     */
+    public Duration estimateWait(int backlog) {
+        lock.lock();
+        try {
+            long rounds = (long) Math.ceil((backlog + 1.0) / currentLimit());
+            long rttMillis = TimeUnit.NANOSECONDS.toMillis((long) averageRttNanos);
+            return Duration.ofMillis(Math.max(1000, rounds * rttMillis));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.main.client;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AI 서버용 서킷 브레이커.
+ * 연속 실패가 임계치를 넘으면 일정 시간 OPEN 상태로 호출을 즉시 거절하고,
+ * 그 뒤 HALF_OPEN 상태에서 한 건만 시험 호출해 회복 여부를 판단한다.
+ * 가상 스레드에서 호출되므로 synchronized 대신 ReentrantLock을 쓴다 (캐리어 스레드 고정 방지).
+ */
+public class AiCircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public AiCircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 호출해도 되는지 확인한다. true를 받은 호출자는 반드시 onSuccess/onFailure 중 하나를 호출해야 한다.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() - openedAt < openMillis) return false;
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    return true;
+                default: // HALF_OPEN: 시험 호출은 한 건만
+                    if (probeInFlight) return false;
+                    probeInFlight = true;
+                    return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            probeInFlight = false;
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = System.currentTimeMillis();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * OPEN 상태가 풀리기까지 남은 시간(ms). OPEN이 아니면 0.
+     */
+    public long remainingOpenMillis() {
+        lock.lock();
+        try {
+            if (state != State.OPEN) return 0;
+            return Math.max(0, openMillis - (System.currentTimeMillis() - openedAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
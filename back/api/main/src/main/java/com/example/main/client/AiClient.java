@@ -0,0 +1,346 @@
+package com.example.main.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import com.example.main.dto.AiGenerateResponse;
+import com.example.main.dto.GenerationInput;
+import com.example.main.dto.PreparedPdf;
+import com.example.main.service.PdfPreprocessService;
+import com.example.main.service.UploadService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * AI 서버(${ai.url}) 호출을 담당하는 공용 클라이언트.
+ * keep-alive 커넥션 풀을 가진 JDK HttpClient 하나를 재사용하고, 연결/응답 타임아웃과 서킷 브레이커를 적용한다.
+ * 노트의 이미지/PDF는 URL 대신 multipart 파트로 디스크에서 바로 스트리밍해 AI 서버가 API를 다시 호출하지 않게 한다.
+ * 동시 호출 수는 {@link AdaptiveConcurrencyLimiter}가 지연/오류에 맞춰 조절하며, 한도를 넘는 호출은
+ * 짧게 기다리다 {@link AiUnavailableException}으로 거절된다 (ai.limiter.* 메트릭).
+ */
+@Slf4j
+@Component
+public class AiClient {
+    private final RestClient restClient;
+    private final AiCircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter rejected;
+    private final Duration maxWait;
+    private final UploadService uploadService;
+    private final PdfPreprocessService pdfPreprocessService;
+    private final ObjectMapper objectMapper;
+
+    public AiClient(RestClient.Builder restClientBuilder,
+                    UploadService uploadService,
+                    PdfPreprocessService pdfPreprocessService,
+                    ObjectMapper objectMapper,
+                    @Value("${ai.url}") String aiUrl,
+                    @Value("${ai.connect-timeout-ms:3000}") long connectTimeoutMs,
+                    @Value("${ai.read-timeout-ms:180000}") long readTimeoutMs,
+                    @Value("${ai.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                    @Value("${ai.circuit-breaker.open-ms:30000}") long openMs,
+                    @Value("${ai.limiter.initial-limit:4}") int initialLimit,
+                    @Value("${ai.limiter.min-limit:1}") int minLimit,
+                    @Value("${ai.limiter.max-limit:16}") int maxLimit,
+                    @Value("${ai.limiter.max-queue:8}") int maxQueue,
+                    @Value("${ai.limiter.max-wait-ms:5000}") long maxWaitMs,
+                    @Value("${ai.limiter.latency-tolerance:2.0}") double latencyTolerance,
+                    MeterRegistry meterRegistry) {
+        // Flask 서버는 h2c 업그레이드를 지원하지 않으므로 HTTP/1.1 고정
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restClient = restClientBuilder
+                .baseUrl(aiUrl)
+                .requestFactory(requestFactory)
+                .build();
+        this.circuitBreaker = new AiCircuitBreaker(failureThreshold, openMs);
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, maxQueue, latencyTolerance, 0.9);
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        Gauge.builder("ai.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("ai.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder("ai.limiter.queued", limiter, AdaptiveConcurrencyLimiter::getQueued).register(meterRegistry);
+        this.rejected = meterRegistry.counter("ai.limiter.rejected");
+        this.uploadService = uploadService;
+        this.pdfPreprocessService = pdfPreprocessService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 요약 + 퀴즈 생성 (/generate)
+     */
+    public AiGenerateResponse generate(GenerationInput input) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("noteId", input.noteId());
+        meta.put("title", input.title());
+        meta.put("keywords", input.keywords());
+        meta.put("description", input.description());
+        // PDF 전처리는 AI 서버 호출(서킷 브레이커) 밖에서
+        Object body = multipart(meta, input);
+        return call(() -> post("/generate", body));
+    }
+
+    /**
+     * 요약 + 퀴즈 생성을 스트리밍으로 받는다 (/generate/stream, NDJSON).
+     * 요약 조각이 도착할 때마다 호출 스레드에서 {@code onSummaryDelta}를 부르고, 마지막 result 이벤트를 돌려준다.
+     * 리미터/서킷 브레이커는 {@link #generate}와 같게 적용되며, 스트림 도중의 error 이벤트도 HTTP 오류처럼 처리한다.
+     */
+    public AiGenerateResponse generateStream(GenerationInput input, Consumer<String> onSummaryDelta) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("noteId", input.noteId());
+        meta.put("title", input.title());
+        meta.put("keywords", input.keywords());
+        meta.put("description", input.description());
+        Object body = multipart(meta, input);
+        return call(() -> postStream("/generate/stream", body, onSummaryDelta));
+    }
+
+    /**
+     * 퀴즈만 재생성 (/api/ai/quiz/generate)
+     */
+    public AiGenerateResponse generateQuiz(GenerationInput input) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("note_text", input.content() != null ? input.content() : input.description());
+        Object body = multipart(meta, input);
+        return call(() -> post("/api/ai/quiz/generate", body));
+    }
+
+    /**
+     * 서킷이 열려 있어 지금 호출하면 바로 거절되는지 여부
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.remainingOpenMillis() == 0;
+    }
+
+    public AiCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * 리미터 기준으로 지금 바로 시작할 수 있는 호출 수. 워커는 이만큼만 작업을 가져간다.
+     */
+    public int availablePermits() {
+        return limiter.available();
+    }
+
+    /**
+     * 대기 작업 {@code backlog}건이 처리되기까지 예상 시간 (Retry-After)
+     */
+    public Duration estimateWait(int backlog) {
+        return limiter.estimateWait(backlog);
+    }
+
+    /**
+     * meta(JSON) 파트 + images/pages/pdf 파일 파트. AI 서버는 이미지가 있으면 이미지만 쓰므로 PDF는 이미지가 없을 때만 보낸다.
+     * PDF는 전처리해 텍스트 페이지는 meta.pdfPages의 text로, 스캔 페이지만 pages 이미지 파트로 보낸다.
+     * 로컬 업로드가 아닌 URL(외부 링크 등)은 예전처럼 meta의 imageUrls/pdfUrl로 넘겨 AI 서버가 내려받게 한다.
+     */
+    private Object multipart(Map<String, Object> meta, GenerationInput input) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        List<String> remoteImageUrls = new ArrayList<>();
+        List<String> imageUrls = input.imageUrls() != null ? input.imageUrls() : List.of();
+        for (String url : imageUrls) {
+            if (!addFile(builder, "images", url)) remoteImageUrls.add(url);
+        }
+        if (imageUrls.isEmpty() && input.pdfUrl() != null) {
+            PreparedPdf prepared = pdfPreprocessService.prepare(input.pdfUrl());
+            if (prepared != null) {
+                addPdfPages(builder, meta, input.pdfUrl(), prepared);
+            } else if (!addFile(builder, "pdf", input.pdfUrl())) {
+                meta.put("pdfUrl", input.pdfUrl());
+            }
+        }
+        meta.put("imageUrls", remoteImageUrls);
+        builder.part("meta", meta, MediaType.APPLICATION_JSON);
+        return builder.build();
+    }
+
+    private void addPdfPages(MultipartBodyBuilder builder, Map<String, Object> meta, String pdfUrl, PreparedPdf prepared) {
+        List<Map<String, Object>> pages = new ArrayList<>(prepared.pages().size());
+        for (PreparedPdf.Page page : prepared.pages()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("page", page.number());
+            if (page.hasImage()) {
+                // 이미지 파트는 페이지 순서대로 붙는다
+                builder.part("pages", new FileSystemResource(pdfPreprocessService.pageImage(pdfUrl, page)),
+                        MediaType.IMAGE_JPEG);
+            } else {
+                entry.put("text", page.text());
+            }
+            pages.add(entry);
+        }
+        meta.put("pdfPages", pages);
+    }
+
+    private boolean addFile(MultipartBodyBuilder builder, String name, String url) {
+        Path path = uploadService.resolve(url);
+        if (path == null || !Files.isRegularFile(path)) return false;
+        // FileSystemResource는 요청 본문을 쓸 때 파일에서 바로 복사된다 (메모리에 올리지 않음)
+        FileSystemResource resource = new FileSystemResource(path);
+        builder.part(name, resource, MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM));
+        return true;
+    }
+
+    private AiGenerateResponse post(String path, Object multipartBody) {
+        // 응답 본문은 Jackson이 스트림에서 바로 레코드로 디코딩
+        AiGenerateResponse body = restClient.post()
+                .uri(path)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(multipartBody)
+                .retrieve()
+                .body(AiGenerateResponse.class);
+        if (body == null) {
+            throw new IllegalStateException("AI server returned an empty body for " + path);
+        }
+        return body;
+    }
+
+    private AiGenerateResponse postStream(String path, Object multipartBody, Consumer<String> onSummaryDelta) {
+        return restClient.post()
+                .uri(path)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(multipartBody)
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw statusError(response.getStatusCode().value(), response.getStatusText(),
+                                response.getHeaders(), response.getBody().readAllBytes());
+                    }
+                    // 한 줄씩 읽어 바로 넘기므로 전체 응답을 모아 두지 않는다
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (line.isBlank()) continue;
+                            JsonNode event = objectMapper.readTree(line);
+                            switch (event.path("type").asText()) {
+                                case "summary" -> onSummaryDelta.accept(event.path("delta").asText(""));
+                                case "result" -> {
+                                    return objectMapper.treeToValue(event, AiGenerateResponse.class);
+                                }
+                                case "error" -> throw streamError(event);
+                                default -> log.debug("Ignoring AI stream event {}", event.path("type").asText());
+                            }
+                        }
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("AI server sent a malformed stream event", e);
+                    } catch (IOException e) {
+                        // 스트림 도중 끊김은 연결 실패와 같게 취급한다
+                        throw new ResourceAccessException(
+                                "AI stream interrupted: " + e.getMessage(), e);
+                    }
+                    throw new IllegalStateException("AI server closed the stream without a result for " + path);
+                });
+    }
+
+    private RestClientException streamError(JsonNode event) {
+        HttpHeaders headers = new HttpHeaders();
+        if (event.hasNonNull("retryAfter")) {
+            headers.set(HttpHeaders.RETRY_AFTER, event.get("retryAfter").asText());
+        }
+        return statusError(event.path("status").asInt(500), event.path("error").asText(""), headers, new byte[0]);
+    }
+
+    private static RestClientException statusError(int status, String statusText, HttpHeaders headers, byte[] body) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        if (httpStatus != null && httpStatus.is4xxClientError()) {
+            return HttpClientErrorException.create(httpStatus, statusText, headers, body, StandardCharsets.UTF_8);
+        }
+        return HttpServerErrorException.create(httpStatus != null ? httpStatus : HttpStatus.INTERNAL_SERVER_ERROR,
+                statusText, headers, body, StandardCharsets.UTF_8);
+    }
+
+    private <T> T call(Supplier<T> request) {
+        if (circuitBreaker.remainingOpenMillis() > 0) {
+            throw circuitOpen();
+        }
+        if (!limiter.tryAcquire(maxWait)) {
+            rejected.increment();
+            throw new AiUnavailableException("AI concurrency limit reached", limiter.estimateWait(limiter.getQueued()));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            limiter.onIgnored();
+            throw circuitOpen();
+        }
+        long started = System.nanoTime();
+        try {
+            T result = request.get();
+            circuitBreaker.onSuccess();
+            limiter.onSuccess(System.nanoTime() - started);
+            return result;
+        } catch (HttpClientErrorException e) {
+            // 4xx는 서버가 살아 있다는 뜻이므로 서킷에는 성공으로 센다
+            circuitBreaker.onSuccess();
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                // 모델 제공자 rate limit: 동시 호출을 줄이고 Retry-After 뒤에 다시
+                limiter.onDropped();
+                throw new AiUnavailableException("AI server is rate limited", retryAfterOf(e));
+            }
+            limiter.onIgnored();
+            throw e;
+        } catch (RestClientException e) {
+            // 연결 실패, 타임아웃, 5xx
+            limiter.onDropped();
+            circuitBreaker.onFailure();
+            if (circuitBreaker.getState() == AiCircuitBreaker.State.OPEN) {
+                log.warn("AI server circuit opened: {}", e.getMessage());
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            // 응답은 받았지만 내용이 잘못된 경우
+            circuitBreaker.onSuccess();
+            limiter.onSuccess(System.nanoTime() - started);
+            throw e;
+        }
+    }
+
+    private AiUnavailableException circuitOpen() {
+        return new AiUnavailableException("AI server circuit is open",
+                Duration.ofMillis(Math.max(1000, circuitBreaker.remainingOpenMillis())));
+    }
+
+    private Duration retryAfterOf(HttpClientErrorException e) {
+        String header = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null;
+        try {
+            if (header != null) return Duration.ofSeconds(Math.max(1, Long.parseLong(header.trim())));
+        } catch (NumberFormatException ignored) {
+            // HTTP-date 형식은 쓰지 않음
+        }
+        return limiter.estimateWait(limiter.getQueued());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.main.client;
+
+import java.time.Duration;
+
+/**
+ * AI 서버를 지금 호출할 수 없을 때(서킷 오픈) 던진다. 호출자는 {@link #getRetryAfter()} 뒤에 다시 시도한다.
+ */
+public class AiUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public AiUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
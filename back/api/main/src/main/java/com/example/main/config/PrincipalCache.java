@@ -0,0 +1,56 @@
+package com.example.main.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * JWT 인증 시 username → UserDetails 캐시.
+ * 요청마다 users 테이블을 조회하지 않도록 하며, 사용자 변경 시 {@link UserCacheEvictionListener}가 무효화한다.
+ * 캐시된 User는 영속성 컨텍스트와 분리된 읽기 전용 객체로 취급해야 한다.
+ * 적중/미스는 auth.principals 이름으로 Micrometer에 노출된다.
+ */
+@Component
+public class PrincipalCache {
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(@Value("${auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // 권한 변경이 다른 노드에서 일어나도 TTL 안에는 반영된다
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.principals");
+    }
+
+    /**
+     * 캐시에 없으면 {@code loader}로 읽어 넣는다. 같은 키의 동시 미스는 한 번만 로드한다.
+     * loader가 던진 예외(UsernameNotFoundException 등)는 그대로 전파되고 캐시되지 않는다.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.main.config;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.main.entity.User;
+
+/**
+ * User 엔티티가 수정/삭제되면 인증 캐시에서 제거한다.
+ * flush 시점에 한 번, 커밋 후에 한 번 더 제거해서 그 사이 다른 요청이 옛 값을 다시 캐시하는 경우를 막는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+    private final PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String username = user.getUsername();
+        principalCache.evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principalCache.evict(username);
+                }
+            });
+        }
+    }
+}
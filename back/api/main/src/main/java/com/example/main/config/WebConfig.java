@@ -1,7 +1,6 @@
 package com.example.main.config;
 
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,11 +10,7 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:./uploads/");
-    }
+    // /uploads/** 는 UploadFileController가 서빙 (캐시 헤더, Range, sendfile)
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -23,6 +18,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins(allowedOrigins.split(","))
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // PDF 뷰어(pdf.js)가 Range 응답을 읽을 수 있도록
+                .exposedHeaders("Accept-Ranges", "Content-Range", "Content-Length", "ETag", "Retry-After")
                 .allowCredentials(true);
     }
 } 
\ No newline at end of file
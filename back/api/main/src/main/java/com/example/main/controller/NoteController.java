@@ -1,24 +1,48 @@
 package com.example.main.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.FacetsDto;
+import com.example.main.dto.GenerationStatusDto;
+import com.example.main.dto.ImageVariants;
 import com.example.main.dto.NoteDto;
+import com.example.main.dto.NoteListVersion;
+import com.example.main.dto.NoteSummary;
 import com.example.main.dto.QuizDto;
+import com.example.main.dto.SearchPage;
+import com.example.main.dto.StoredFile;
+import com.example.main.entity.Note;
+import com.example.main.entity.User;
+import com.example.main.service.GenerationJobService;
+import com.example.main.service.GenerationStreamHub;
+import com.example.main.service.ImageDerivativeService;
+import com.example.main.service.NoteFacetService;
 import com.example.main.service.NoteService;
 import com.example.main.service.QuizService;
+import com.example.main.service.UploadService;
+import com.example.main.util.SparseFields;
 
-import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.UUID;
 import java.util.List;
-import java.nio.charset.StandardCharsets;
-import java.net.URLEncoder;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/notes")
@@ -26,49 +50,129 @@ import java.net.URLEncoder;
 @SecurityRequirement(name = "bearerAuth")
 public class NoteController {
     private final NoteService noteService;
+    private final NoteFacetService noteFacetService;
     private final QuizService quizService;
+    private final GenerationJobService generationJobService;
+    private final UploadService uploadService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final GenerationStreamHub generationStreamHub;
+    private final ObjectMapper objectMapper;
 
+    // 조건부 GET: 버전(updatedAt/퀴즈 버전)만 먼저 읽어 바뀌지 않았으면 본문을 만들지 않고 304
+    // 브라우저가 저장하고 매번 재검증하도록 private, no-cache
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // 목록은 요약(NoteSummary)만, fields=로 필요한 속성만 골라 받을 수 있다 (예: fields=title,category)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<NoteDto>> getNotesByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(noteService.getNotesByUser(userId));
+    public ResponseEntity<?> getNotesByUser(@PathVariable Long userId,
+                                            @RequestParam(value = "fields", required = false) String fields,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SparseFields fieldset;
+        try {
+            fieldset = SparseFields.parse(fields, NoteSummary.class, objectMapper);
+        } catch (IllegalArgumentException e) {
+            return unknownField(e);
+        }
+        NoteListVersion version = noteService.getUserNotesVersion(userId);
+        return conditional(ifNoneMatch, listEtag("user-" + userId, version), version.lastUpdatedAt(),
+                () -> fieldset.selectAll(noteService.getNotesByUser(userId)));
     }
 
     @GetMapping("/{noteId}")
-    public ResponseEntity<NoteDto> getNote(@PathVariable Long noteId) {
+    public ResponseEntity<?> getNote(@PathVariable Long noteId,
+                                     @RequestParam(value = "fields", required = false) String fields,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SparseFields fieldset;
+        try {
+            fieldset = SparseFields.parse(fields, NoteDto.class, objectMapper);
+        } catch (IllegalArgumentException e) {
+            return unknownField(e);
+        }
+        Optional<LocalDateTime> version = noteService.getNoteVersion(noteId);
+        if (version.isEmpty()) return ResponseEntity.notFound().build();
+        String etag = "W/\"note-" + noteId + "-" + stamp(version.get()) + "\"";
+        if (matchesEtag(ifNoneMatch, etag)) return notModified(etag, version.get());
         return noteService.getNote(noteId)
-                .map(ResponseEntity::ok)
+                .map(note -> ok(etag, version.get(), fieldset.select(note)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{noteId}/quiz")
-    public ResponseEntity<List<QuizDto>> getQuizByNote(@PathVariable Long noteId) {
-        List<QuizDto> quizzes = quizService.getQuizzesByNoteId(noteId);
-        System.out.println("Fetching quizzes for noteId: " + noteId + ", found: " + quizzes.size());
-        for (QuizDto quiz : quizzes) {
-            System.out.println("Quiz ID: " + quiz.getId() + ", Question: " + quiz.getQuestion());
-        }
-        return ResponseEntity.ok(quizzes);
+    public ResponseEntity<List<QuizDto>> getQuizByNote(@PathVariable Long noteId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Long> version = noteService.getQuizVersion(noteId);
+        if (version.isEmpty()) return ResponseEntity.ok(List.of());
+        String etag = "W/\"quiz-" + noteId + "-" + version.get() + "\"";
+        return conditional(ifNoneMatch, etag, null, () -> quizService.getQuizzesByNoteId(noteId));
     }
 
     @GetMapping("/public")
-    public ResponseEntity<List<NoteDto>> getPublicNotes() {
-        return ResponseEntity.ok(noteService.getPublicNotes());
+    public ResponseEntity<?> getPublicNotes(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SparseFields fieldset;
+        try {
+            fieldset = SparseFields.parse(fields, NoteSummary.class, objectMapper);
+        } catch (IllegalArgumentException e) {
+            return unknownField(e);
+        }
+        NoteListVersion version = noteService.getPublicNotesVersion();
+        return conditional(ifNoneMatch, listEtag("public", version), version.lastUpdatedAt(),
+                () -> fieldset.selectAll(noteService.getPublicNotes()));
+    }
+
+    @GetMapping("/public/feed")
+    public ResponseEntity<?> getPublicFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "fields", required = false) String fields
+    ) {
+        SparseFields fieldset;
+        try {
+            fieldset = SparseFields.parse(fields, NoteSummary.class, objectMapper);
+        } catch (IllegalArgumentException e) {
+            return unknownField(e);
+        }
+        CursorPage<NoteSummary> page;
+        try {
+            page = noteService.getPublicFeed(cursor, size, title, category, keyword);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("잘못된 커서입니다.");
+        }
+        return ResponseEntity.ok(new CursorPage<>(fieldset.selectAll(page.getItems()), page.getNextCursor()));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetsDto> getFacets(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(noteFacetService.getFacets(limit, LocalDateTime.now()));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam("q") String q,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            @AuthenticationPrincipal User user
+    ) {
+        SparseFields fieldset;
+        try {
+            fieldset = SparseFields.parse(fields, NoteSummary.class, objectMapper);
+        } catch (IllegalArgumentException e) {
+            return unknownField(e);
+        }
+        Long viewerId = user != null ? user.getId() : null;
+        SearchPage<NoteSummary> result = noteService.search(q, viewerId, page, size);
+        return ResponseEntity.ok(new SearchPage<>(fieldset.selectAll(result.getItems()),
+                result.getTotal(), result.getPage(), result.getSize()));
     }
 
     @PostMapping("/upload-image")
     public ResponseEntity<String> uploadImage(@RequestParam("file") MultipartFile file) throws IOException {
-        String originalName = file.getOriginalFilename();
-        String ext = "";
-        int idx = originalName.lastIndexOf(".");
-        if (idx != -1) ext = originalName.substring(idx);
-        String fileName = UUID.randomUUID().toString().replace("-", "") + ext;
-        String uploadDir = new File("uploads").getAbsolutePath() + File.separator;
-        File dir = new File(uploadDir);
-        if (!dir.exists()) dir.mkdirs();
-        File dest = new File(uploadDir + fileName);
-        file.transferTo(dest);
-        String encodedFileName = java.net.URLEncoder.encode(fileName, java.nio.charset.StandardCharsets.UTF_8.toString());
-        return ResponseEntity.ok("/uploads/" + encodedFileName);
+        return ResponseEntity.ok(uploadService.store(file).url());
     }
 
     @PostMapping("/upload-files")
@@ -79,37 +183,23 @@ public class NoteController {
         if (images != null && images.length > 20) {
             return ResponseEntity.badRequest().body("이미지는 최대 20장까지 업로드할 수 있습니다.");
         }
-        String uploadDir = new File("uploads").getAbsolutePath() + File.separator;
-        File dir = new File(uploadDir);
-        if (!dir.exists()) dir.mkdirs();
-        List<String> imageUrls = new java.util.ArrayList<>();
-        String pdfUrl = null;
-        if (images != null) {
-            for (MultipartFile file : images) {
-                String originalName = file.getOriginalFilename();
-                String ext = "";
-                int idx = originalName.lastIndexOf(".");
-                if (idx != -1) ext = originalName.substring(idx);
-                String fileName = UUID.randomUUID().toString().replace("-", "") + ext;
-                File dest = new File(uploadDir + fileName);
-                file.transferTo(dest);
-                String encodedFileName = java.net.URLEncoder.encode(fileName, java.nio.charset.StandardCharsets.UTF_8.toString());
-                imageUrls.add("/uploads/" + encodedFileName);
-            }
-        }
-        if (pdf != null) {
-            String originalName = pdf.getOriginalFilename();
-            String ext = "";
-            int idx = originalName.lastIndexOf(".");
-            if (idx != -1) ext = originalName.substring(idx);
-            String fileName = UUID.randomUUID().toString().replace("-", "") + ext;
-            File dest = new File(uploadDir + fileName);
-            pdf.transferTo(dest);
-            String encodedFileName = java.net.URLEncoder.encode(fileName, java.nio.charset.StandardCharsets.UTF_8.toString());
-            pdfUrl = "/uploads/" + encodedFileName;
+        // 이미지와 PDF를 병렬로 저장 (저장 중 해시/크기 계산)
+        List<MultipartFile> parts = new ArrayList<>();
+        if (images != null) parts.addAll(List.of(images));
+        if (pdf != null) parts.add(pdf);
+        List<StoredFile> stored = uploadService.storeAll(parts);
+        int imageCount = images != null ? images.length : 0;
+        List<StoredFile> storedImages = stored.subList(0, imageCount);
+        List<String> imageUrls = new ArrayList<>();
+        for (StoredFile image : storedImages) {
+            imageUrls.add(image.url());
         }
+        String pdfUrl = pdf != null ? stored.get(imageCount).url() : null;
+        // 썸네일/표시용/AI 입력용 파생 이미지 (실패한 항목은 원본 URL)
+        List<ImageVariants> imageVariants = imageDerivativeService.generateAll(storedImages);
         java.util.Map<String, Object> result = new java.util.HashMap<>();
         result.put("imageUrls", imageUrls);
+        result.put("imageVariants", imageVariants);
         result.put("pdfUrl", pdfUrl);
 
         //  YOLO logo detection stub:
@@ -150,11 +240,42 @@ public class NoteController {
     }
 
     @PostMapping("/{noteId}/quiz/retry")
-    public ResponseEntity<?> retryQuiz(@PathVariable Long noteId) {
-        NoteDto updated = noteService.retryQuizGeneration(noteId);
+    public ResponseEntity<?> retryQuiz(@PathVariable Long noteId,
+                                       @RequestParam(value = "fresh", defaultValue = "false") boolean fresh) {
+        // AI 작업이 밀려 있으면 큐에 더 쌓지 않고 바로 거절
+        Optional<Duration> retryAfter = generationJobService.backlogRetryAfter();
+        if (retryAfter.isPresent()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.get().toSeconds())))
+                    .body("AI 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        NoteDto updated = noteService.retryQuizGeneration(noteId, fresh);
         return ResponseEntity.ok(updated);
     }
 
+    @GetMapping("/{noteId}/generation")
+    public ResponseEntity<GenerationStatusDto> getGenerationStatus(@PathVariable Long noteId) {
+        return generationJobService.getStatus(noteId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 요약 생성 진행 상황(SSE). 요약 조각(summary)을 만들어지는 대로 보내고, 퀴즈가 저장되면 quiz, 끝나면 done을 보낸다.
+     */
+    @GetMapping(value = "/{noteId}/generation/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGeneration(@PathVariable Long noteId) {
+        return generationJobService.getStatus(noteId)
+                .map(status -> ResponseEntity.ok()
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                        // 프록시(nginx)가 이벤트를 모아 보내지 않도록
+                        .header("X-Accel-Buffering", "no")
+                        .body(generationStreamHub.subscribe(noteId, status.getStatus() != null
+                                ? Note.GenerationStatus.valueOf(status.getStatus())
+                                : Note.GenerationStatus.DONE)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{noteId}")
     public ResponseEntity<Void> deleteNote(@PathVariable Long noteId) {
         noteService.deleteNote(noteId);
@@ -189,4 +310,49 @@ public class NoteController {
         }
         return tags;
     }
+
+    private static ResponseEntity<String> unknownField(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body("알 수 없는 필드입니다: " + e.getMessage());
+    }
+
+    private static <T> ResponseEntity<T> conditional(String ifNoneMatch, String etag, LocalDateTime lastModified,
+                                                     Supplier<T> body) {
+        if (matchesEtag(ifNoneMatch, etag)) return notModified(etag, lastModified);
+        return ok(etag, lastModified, body.get());
+    }
+
+    private static <T> ResponseEntity<T> ok(String etag, LocalDateTime lastModified, T body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+        if (lastModified != null) builder.lastModified(lastModified.atZone(ZoneId.systemDefault()));
+        return builder.body(body);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag, LocalDateTime lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE);
+        if (lastModified != null) builder.lastModified(lastModified.atZone(ZoneId.systemDefault()));
+        return builder.build();
+    }
+
+    // If-None-Match는 약한 비교 (W/ 접두어 무시)
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static String listEtag(String scope, NoteListVersion version) {
+        return "W/\"notes-" + scope + "-" + version.count() + "-" + stamp(version.lastUpdatedAt()) + "\"";
+    }
+
+    // 마이크로초 단위 (DATETIME(6)과 같은 정밀도)
+    private static String stamp(LocalDateTime time) {
+        if (time == null) return "0";
+        return Long.toHexString(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() * 1000
+                + time.getNano() / 1000 % 1000);
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.main.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.main.dto.DueReviewDto;
+import com.example.main.dto.ReviewTimelineDto;
+import com.example.main.entity.User;
+import com.example.main.service.ReviewService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reviews")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+public class ReviewController {
+    private final ReviewService reviewService;
+
+    @GetMapping("/due")
+    public ResponseEntity<List<DueReviewDto>> getDueReviews(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(reviewService.getDueReviews(user.getId(), LocalDate.now()));
+    }
+
+    @GetMapping("/timeline")
+    public ResponseEntity<List<ReviewTimelineDto>> getTimeline(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(reviewService.getTimeline(user.getId(), LocalDate.now()));
+    }
+}
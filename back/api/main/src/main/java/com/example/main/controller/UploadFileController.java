@@ -0,0 +1,167 @@
+package com.example.main.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import com.example.main.service.FileBlobService;
+import com.example.main.service.UploadService;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * /uploads/** 정적 파일 서빙.
+ * 업로드 파일은 한 번 쓰이면 바뀌지 않으므로(내용 해시/UUID 이름) 1년 immutable 캐시와 강한 ETag를 붙이고,
+ * 조건부 GET(304)과 단일 Range(206) 요청을 지원한다. 본문 전송은 Tomcat sendfile(커널 zero-copy)을 사용한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class UploadFileController {
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // Tomcat NIO 커넥터의 sendfile 요청 속성
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UploadService uploadService;
+
+    @Value("${upload.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String url = UriUtils.decode(request.getRequestURI().substring(request.getContextPath().length()),
+                StandardCharsets.UTF_8);
+        Path path = uploadService.resolve(url);
+        BasicFileAttributes attrs = path != null ? readAttributes(path) : null;
+        if (attrs == null || !attrs.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = attrs.size();
+        String sha256 = FileBlobService.hashOf(url);
+        // blob은 내용 해시 그대로, 예전 UUID 파일은 크기+수정시각 기반
+        String etag = sha256 != null
+                ? "\"" + sha256 + "\""
+                : "\"" + Long.toHexString(length) + "-" + Long.toHexString(attrs.lastModifiedTime().toMillis()) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attrs.lastModifiedTime().toMillis());
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        long start = 0;
+        long end = length; // exclusive
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range가 현재 ETag와 다르면 Range를 무시하고 전체를 보낸다
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            // 여러 구간이나 해석할 수 없는 형식(null)은 전체 응답으로 처리 (RFC 9110 허용)
+            long[] parsed = parseRange(range, length);
+            if (parsed != null && parsed.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            } else if (parsed != null) {
+                start = parsed[0];
+                end = parsed[1] + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod()) || end == start) return;
+
+        if (end - start >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // 응답 본문은 Tomcat이 커밋 후 커널 sendfile로 보낸다
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = file.transferTo(position, end - position, out);
+                if (sent <= 0) break;
+                position += sent;
+            }
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * "bytes=a-b" 단일 구간을 [start, endInclusive]로 해석한다.
+     * 만족할 수 없는 구간이면 빈 배열, 여러 구간이나 형식 오류면 null.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) return null;
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.contains(",")) return null;
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // suffix: 마지막 N바이트
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) return new long[0];
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start >= length) return new long[0];
+                if (end < start) return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
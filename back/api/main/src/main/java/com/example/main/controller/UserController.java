@@ -0,0 +1,42 @@
+package com.example.main.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.main.entity.User;
+import com.example.main.service.UserStatsService;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+public class UserController {
+    private final UserStatsService userStatsService;
+
+    /**
+     * 대시보드 통계 (카테고리별 노트 수, 날짜별 복습 수, 연속 복습 일수, 단계별 오늘 복습 수)
+     */
+    @GetMapping("/{userId}/stats")
+    public ResponseEntity<?> getStats(@PathVariable Long userId, @AuthenticationPrincipal User user) {
+        if (!user.getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("본인의 통계만 조회할 수 있습니다.");
+        }
+        return ResponseEntity.ok(userStatsService.getStats(userId, LocalDate.now()));
+    }
+
+    @GetMapping("/{userId}/activity")
+    public ResponseEntity<?> getActivity(@PathVariable Long userId,
+                                         @RequestParam(defaultValue = "365") int days,
+                                         @AuthenticationPrincipal User user) {
+        if (!user.getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("본인의 통계만 조회할 수 있습니다.");
+        }
+        return ResponseEntity.ok(userStatsService.getActivity(userId, LocalDate.now(), days));
+    }
+}
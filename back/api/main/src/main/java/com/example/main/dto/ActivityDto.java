@@ -0,0 +1,18 @@
+package com.example.main.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 복습 활동 히트맵. bitmap은 from부터 하루 1비트(바이트 안에서 낮은 비트부터)를 base64로 인코딩한 값.
+ */
+@Data
+public class ActivityDto {
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private String bitmap;
+    private int activeDays;
+    private int currentStreak;
+}
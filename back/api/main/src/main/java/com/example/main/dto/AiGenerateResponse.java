@@ -0,0 +1,15 @@
+package com.example.main.dto;
+
+import java.util.List;
+
+/**
+ * AI 서버 /generate, /api/ai/quiz/generate 응답. 퀴즈 재생성 응답에는 content가 없다.
+ */
+public record AiGenerateResponse(
+        String content,
+        List<AiQuiz> quiz
+) {
+    public List<AiQuiz> quizOrEmpty() {
+        return quiz != null ? quiz : List.of();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.main.dto;
+
+import java.util.List;
+
+/**
+ * AI 서버가 돌려주는 퀴즈 한 문항.
+ */
+public record AiQuiz(
+        String question,
+        List<String> options,
+        Integer answerIndex,
+        String explanation
+) {
+    public boolean isValid() {
+        return question != null && options != null && !options.isEmpty() && answerIndex != null;
+    }
+}
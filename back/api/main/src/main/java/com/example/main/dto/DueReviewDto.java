@@ -0,0 +1,33 @@
+package com.example.main.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 오늘 복습할 노트 (목록용 최소 필드)
+ */
+@Data
+@NoArgsConstructor
+public class DueReviewDto {
+    private Long id;
+    private String title;
+    private String category;
+    private LocalDateTime createdAt;
+    private LocalDate lastReviewedDate;
+    private int days; // 업로드 후 경과일 (1/3/7/30)
+    private int stage; // 1~4
+    private String reviewStage; // 1차 복습 ~ 최종 복습, 오늘 복습했으면 복습 완료
+    private boolean completed;
+
+    // JPQL 생성자 표현식용
+    public DueReviewDto(Long id, String title, String category, LocalDateTime createdAt, LocalDate lastReviewedDate) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.createdAt = createdAt;
+        this.lastReviewedDate = lastReviewedDate;
+    }
+}
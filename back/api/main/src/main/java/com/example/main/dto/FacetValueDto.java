@@ -0,0 +1,10 @@
+package com.example.main.dto;
+
+import lombok.Data;
+
+@Data
+public class FacetValueDto {
+    private String value;
+    private int count; // 이 값을 가진 공개 노트 수
+    private double score; // 최근성 점수 (노트마다 반감기로 줄어드는 가중치의 합)
+}
@@ -0,0 +1,17 @@
+package com.example.main.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 공개 노트 패싯. 각 목록은 노트 수 또는 최근성 점수 내림차순.
+ */
+@Data
+public class FacetsDto {
+    private List<FacetValueDto> titles; // 과목명
+    private List<FacetValueDto> categories; // 학기
+    private List<FacetValueDto> keywords;
+    private List<FacetValueDto> trendingKeywords;
+    private List<FacetValueDto> trendingTitles;
+}
@@ -0,0 +1,17 @@
+package com.example.main.dto;
+
+import java.util.List;
+
+/**
+ * AI 서버 요청에 필요한 노트 스냅샷. 트랜잭션 밖(워커 스레드)에서 사용한다.
+ */
+public record GenerationInput(
+        Long noteId,
+        String title,
+        List<String> keywords,
+        String description,
+        String content,
+        List<String> imageUrls,
+        String pdfUrl
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.main.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class GenerationStatusDto {
+    private Long noteId;
+    private String status; // 노트 기준 상태 (PENDING/RUNNING/DONE/FAILED)
+    private String jobType; // NOTE, QUIZ
+    private int attempts;
+    private int maxAttempts;
+    private LocalDateTime nextRunAt; // 재시도 예정 시각
+    private String lastError;
+    private LocalDateTime updatedAt;
+}
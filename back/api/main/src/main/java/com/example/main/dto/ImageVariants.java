@@ -0,0 +1,11 @@
+package com.example.main.dto;
+
+/**
+ * 업로드 이미지의 파생 이미지 URL. 생성에 실패한 항목은 원본 URL로 채운다.
+ */
+public record ImageVariants(String original, String thumb, String display, String ai) {
+
+    public static ImageVariants originalOnly(String url) {
+        return new ImageVariants(url, url, url, url);
+    }
+}
@@ -22,4 +22,5 @@ public class NoteDto {
     private LocalDate lastReviewedDate;
     private boolean isPublic; // 공개 여부
     private String userName; // 작성자 이름
+    private String generationStatus; // AI 생성 상태 (PENDING/RUNNING/DONE/FAILED)
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.example.main.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 노트 목록의 버전 (조건부 GET용). 노트가 추가/삭제되면 count가, 수정되면 lastUpdatedAt이 바뀐다.
+ */
+public record NoteListVersion(Long count, LocalDateTime lastUpdatedAt) {
+}
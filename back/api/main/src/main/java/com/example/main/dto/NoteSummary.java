@@ -0,0 +1,53 @@
+package com.example.main.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.example.main.entity.Note;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 노트 목록용 요약. 요약 본문(content), PDF, 복습 히스토리는 담지 않는다.
+ * JPQL 생성자 표현식으로 읽으므로 notes.content(TEXT) 컬럼은 조회되지 않는다.
+ */
+@Data
+@NoArgsConstructor
+public class NoteSummary {
+    private Long id;
+    private Long userId;
+    private String userName; // 작성자 이름
+    private String title;
+    private String category;
+    private List<String> keywords;
+    private String description;
+    private String thumbnailUrl; // 첫 이미지의 썸네일 (없으면 null)
+    private int imageCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDate lastReviewedDate;
+    private boolean isPublic;
+    private String generationStatus;
+
+    // JPQL 생성자 표현식용. 썸네일은 우선 첫 이미지 원본 URL이고 서비스에서 파생 이미지로 바꾼다
+    public NoteSummary(Long id, Long userId, String userName, String title, String category, List<String> keywords,
+                       String description, List<String> imageUrls, LocalDateTime createdAt, LocalDateTime updatedAt,
+                       LocalDate lastReviewedDate, boolean isPublic, Note.GenerationStatus generationStatus) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.title = title;
+        this.category = category;
+        this.keywords = keywords;
+        this.description = description;
+        this.thumbnailUrl = imageUrls != null && !imageUrls.isEmpty() ? imageUrls.get(0) : null;
+        this.imageCount = imageUrls != null ? imageUrls.size() : 0;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.lastReviewedDate = lastReviewedDate;
+        this.isPublic = isPublic;
+        this.generationStatus = generationStatus != null ? generationStatus.name() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.main.dto;
+
+import java.util.List;
+
+/**
+ * AI 입력용으로 전처리한 PDF. 텍스트 레이어가 있는 페이지는 text, 스캔 페이지는 렌더링한 image(파일명)를 가진다.
+ */
+public record PreparedPdf(int version, List<Page> pages) {
+
+    public record Page(int number, String text, String image) {
+        public boolean hasImage() {
+            return image != null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.main.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 망각곡선 마커: 업로드 후 경과일별 노트 수
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewTimelineDto {
+    private int days;
+    private long count;
+}
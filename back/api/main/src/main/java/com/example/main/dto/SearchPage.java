@@ -0,0 +1,17 @@
+package com.example.main.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPage<T> {
+    private List<T> items;
+    private long total; // 볼 수 있는 전체 결과 수
+    private int page;
+    private int size;
+}
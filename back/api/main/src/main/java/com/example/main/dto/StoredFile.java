@@ -0,0 +1,11 @@
+package com.example.main.dto;
+
+/**
+ * 디스크에 저장된 업로드 파일.
+ *
+ * @param url    클라이언트에 돌려줄 경로 (/uploads/...)
+ * @param sha256 저장하면서 계산한 내용 해시 (hex)
+ * @param size   바이트 수
+ */
+public record StoredFile(String url, String sha256, long size, String contentType) {
+}
@@ -0,0 +1,23 @@
+package com.example.main.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 대시보드 통계. 날짜 키는 yyyy-MM-dd.
+ */
+@Data
+public class UserStatsDto {
+    private Long userId;
+    private long noteCount;
+    private Map<String, Long> notesByCategory;
+    private Map<String, Integer> reviewsByDay; // 최근 복습 기록 (날짜순)
+    private int currentStreak; // 오늘 또는 어제까지 이어진 연속 복습 일수, 끊겼으면 0
+    private int longestStreak;
+    private LocalDate lastReviewDay;
+    private Map<String, Integer> dueByStage; // 오늘 복습할 노트 수 (1차 복습 ~ 최종 복습)
+    private int dueToday;
+    private int reviewedToday;
+}
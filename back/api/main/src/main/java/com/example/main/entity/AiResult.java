@@ -0,0 +1,52 @@
+package com.example.main.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI 생성 결과 캐시. 키는 정규화한 입력(텍스트 + 미디어 내용 해시)과 프롬프트 버전의 SHA-256.
+ * 같은 자료로 다시 요청하면 AI 서버를 호출하지 않고 이 결과를 쓴다.
+ */
+@Entity
+@Table(name = "ai_results", indexes = {
+        @Index(name = "idx_ai_results_last_hit", columnList = "last_hit_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiResult {
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private GenerationJob.Type type;
+
+    @Column(name = "prompt_version", nullable = false, length = 32)
+    private String promptVersion;
+
+    @Column(columnDefinition = "TEXT")
+    private String content; // 퀴즈 재생성 결과에는 없음
+
+    @Column(name = "quiz_json", columnDefinition = "TEXT")
+    private String quizJson;
+
+    @Column(name = "hit_count", nullable = false)
+    private long hitCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_hit_at", nullable = false)
+    private LocalDateTime lastHitAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (lastHitAt == null) lastHitAt = createdAt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.main.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소 업로드 파일. 같은 바이트는 한 번만 저장되고, 노트가 참조하는 수를 센다.
+ * 파일 경로: uploads/{sha256[0:2]}/{sha256[2:4]}/{sha256}{extension}
+ */
+@Entity
+@Table(name = "file_blobs", indexes = {
+        @Index(name = "idx_file_blobs_ref_touched", columnList = "ref_count, touched_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileBlob {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(length = 11)
+    private String extension; // ".pdf" 등, 없으면 ""
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "touched_at", nullable = false)
+    private LocalDateTime touchedAt; // 마지막 업로드/참조 해제 시각 (정리 유예 기준)
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
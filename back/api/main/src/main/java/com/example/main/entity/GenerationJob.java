@@ -0,0 +1,83 @@
+package com.example.main.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI 요약/퀴즈 생성 작업 큐의 한 항목.
+ * 여러 API 노드의 워커가 {@code FOR UPDATE SKIP LOCKED}로 나눠 가져간다.
+ */
+@Entity
+@Table(name = "generation_jobs", indexes = {
+        @Index(name = "idx_generation_jobs_status_next_run", columnList = "status, next_run_at"),
+        @Index(name = "idx_generation_jobs_note", columnList = "note_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private int maxAttempts;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "locked_by", length = 128)
+    private String lockedBy; // 작업을 가져간 워커 노드
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "bypass_cache", nullable = false)
+    private boolean bypassCache; // true면 캐시된 AI 결과를 쓰지 않고 새로 생성
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Type {
+        NOTE, // 요약 + 퀴즈
+        QUIZ  // 퀴즈 재생성
+    }
+
+    public enum Status {
+        PENDING, RUNNING, DONE, DEAD // DEAD: 재시도 한도 초과
+    }
+}
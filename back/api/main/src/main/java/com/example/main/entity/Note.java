@@ -2,13 +2,23 @@ package com.example.main.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+// 키워드/이미지 목록은 작고 개수가 정해져 있어 별도 테이블 대신 JSON 컬럼에 둔다 (노트 하나 = 행 하나)
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+        // 공개 피드 키셋 페이지네이션: (is_public, [필터,] created_at, id)
+        @Index(name = "idx_notes_public_created", columnList = "is_public, created_at, id"),
+        @Index(name = "idx_notes_public_category_created", columnList = "is_public, category, created_at, id"),
+        @Index(name = "idx_notes_public_title_created", columnList = "is_public, title, created_at, id"),
+        // 오늘의 복습 / 망각곡선 (사용자별 생성일 범위)
+        @Index(name = "idx_notes_user_created", columnList = "user_id, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -31,18 +41,16 @@ public class Note {
     @Column(nullable = false)
     private boolean isPublic = false; // 공개 여부(기본값: 비공개)
 
-    @ElementCollection
-    @CollectionTable(name = "note_keywords", joinColumns = @JoinColumn(name = "note_id"))
-    @Column(name = "keyword")
-    private List<String> keywords = new ArrayList<>(); // 최대 5개
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "keywords")
+    private List<String> keywords = new ArrayList<>(); // 최대 5개, 키워드 검색은 note_keyword_index
 
     @Column
     private String description; // 기타 설명
 
-    @ElementCollection
-    @CollectionTable(name = "note_images", joinColumns = @JoinColumn(name = "note_id"))
-    @Column(name = "image_url", columnDefinition = "TEXT")
-    private List<String> imageUrls = new ArrayList<>(); // 여러 이미지 경로
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "image_urls")
+    private List<String> imageUrls = new ArrayList<>(); // 여러 이미지 경로 (최대 20개)
 
     @Column(columnDefinition = "TEXT")
     private String pdfUrl; // PDF 파일 경로
@@ -50,30 +58,38 @@ public class Note {
     @Column(columnDefinition = "TEXT")
     private String content; // GPT 요약
 
-    @ElementCollection
-    @CollectionTable(name = "note_review_history", joinColumns = @JoinColumn(name = "note_id"))
-    @Column(name = "reviewed_at")
-    private List<LocalDateTime> reviewHistory = new ArrayList<>();
-
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt; // 마지막으로 공개로 바뀐 시각 (trending 가중치 기준)
+
     @Column(name = "last_reviewed_date")
-    private LocalDate lastReviewedDate;
+    private LocalDate lastReviewedDate; // 복습 기록 전체는 review_events
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "generation_status", length = 16)
+    private GenerationStatus generationStatus; // AI 요약/퀴즈 생성 상태
+
+    @Column(name = "quiz_version", nullable = false)
+    private long quizVersion; // 퀴즈가 바뀔 때마다 1 증가 (퀴즈 조회 ETag)
 
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        if (reviewHistory == null) reviewHistory = new ArrayList<>();
-        reviewHistory.add(createdAt); // 업로드 시점도 복습 히스토리에 포함
+        if (isPublic && publishedAt == null) publishedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    public enum GenerationStatus {
+        PENDING, RUNNING, DONE, FAILED
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.main.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 키워드 검색용 색인 행. 노트의 키워드 원본은 notes.keywords(JSON)이고,
+ * 이 테이블은 키워드 → 노트 조회만을 위해 NoteService가 같은 트랜잭션에서 함께 고친다.
+ */
+@Entity
+@Table(name = "note_keyword_index", indexes = {
+        @Index(name = "idx_note_keyword_index_keyword", columnList = "keyword, note_id"),
+        @Index(name = "idx_note_keyword_index_note", columnList = "note_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteKeyword {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Column(nullable = false)
+    private String keyword;
+}
@@ -2,6 +2,8 @@ package com.example.main.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,8 +13,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Quiz {
+    // IDENTITY는 JDBC 배치 insert가 불가능하므로 pooled 시퀀스 사용 (MySQL에서는 quiz_seq 테이블로 에뮬레이션)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_seq")
+    @SequenceGenerator(name = "quiz_seq", sequenceName = "quiz_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -22,10 +26,9 @@ public class Quiz {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String question;
 
-    @ElementCollection
-    @CollectionTable(name = "quiz_options", joinColumns = @JoinColumn(name = "quiz_id"))
-    @Column(name = "option_text") // avoid MySQL reserved keyword "option"
-    private List<String> options = new ArrayList<>(); // 5개
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "option_list") // avoid MySQL reserved keyword "option"
+    private List<String> options = new ArrayList<>(); // 5개, 순서 = answerIndex 기준
 
     @Column(nullable = false)
     private int answerIndex; // 0~4
@@ -0,0 +1,46 @@
+package com.example.main.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 복습 기록 (추가만 하는 이벤트 로그). 노트를 지워도 남는다.
+ * reviewDay는 이 이벤트가 반영되는 복습일: REVIEWED는 복습한 날, UNREVIEWED는 취소된 복습의 날.
+ */
+@Entity
+@Table(name = "review_events", indexes = {
+        @Index(name = "idx_review_events_user_time", columnList = "user_id, occurred_at"),
+        @Index(name = "idx_review_events_note_time", columnList = "note_id, occurred_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "review_day", nullable = false)
+    private LocalDate reviewDay;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        REVIEWED, UNREVIEWED
+    }
+}
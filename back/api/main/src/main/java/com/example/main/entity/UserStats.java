@@ -0,0 +1,67 @@
+package com.example.main.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 사용자별 대시보드 통계 (읽기 모델). NoteService가 노트 생성/복습/삭제 때 증분으로 갱신하므로
+ * 대시보드는 notes/review_events를 훑지 않고 이 행 하나만 읽는다.
+ * 날짜 키는 ISO 문자열(yyyy-MM-dd)이라 문자열 순서가 날짜 순서와 같다.
+ * 복습한 날은 하루 1비트 비트맵으로도 들고 있어 연속 복습 일수와 1년치 히트맵을 이 행만으로 계산한다.
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "note_count", nullable = false)
+    private long noteCount;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "notes_by_category")
+    private Map<String, Long> notesByCategory;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "notes_by_day")
+    private Map<String, Integer> notesByDay; // 업로드한 날짜별 노트 수 (최근 31일, 복습 단계 계산용)
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "reviews_by_day")
+    private Map<String, Integer> reviewsByDay; // 날짜별 복습한 노트 수 (최근 stats.review-days-retained일)
+
+    @Column(name = "current_streak", nullable = false)
+    private int currentStreak; // lastReviewDay까지 연속으로 복습한 날 수
+
+    @Column(name = "longest_streak", nullable = false)
+    private int longestStreak;
+
+    @Column(name = "last_review_day")
+    private LocalDate lastReviewDay;
+
+    @Column(name = "activity_start")
+    private LocalDate activityStart; // activityBits의 첫 비트가 가리키는 날
+
+    @Column(name = "activity_bits", length = 256)
+    private byte[] activityBits; // 복습한 날 = 1, 하루 1비트 (DayBitmap, 최근 stats.activity-days일)
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
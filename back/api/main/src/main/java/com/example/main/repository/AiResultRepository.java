@@ -0,0 +1,33 @@
+package com.example.main.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.entity.AiResult;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AiResultRepository extends JpaRepository<AiResult, String> {
+
+    @Modifying
+    @Query("UPDATE AiResult r SET r.hitCount = r.hitCount + 1, r.lastHitAt = :now WHERE r.cacheKey = :cacheKey")
+    int recordHit(@Param("cacheKey") String cacheKey, @Param("now") LocalDateTime now);
+
+    // 재생성 결과로 덮어쓴다 (merge는 hitCount/createdAt/lastHitAt까지 엔티티 기본값으로 덮음)
+    @Transactional
+    @Modifying
+    @Query("UPDATE AiResult r SET r.content = :content, r.quizJson = :quizJson, r.promptVersion = :promptVersion, " +
+            "r.lastHitAt = :now WHERE r.cacheKey = :cacheKey")
+    int overwrite(@Param("cacheKey") String cacheKey, @Param("content") String content,
+                  @Param("quizJson") String quizJson, @Param("promptVersion") String promptVersion,
+                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM AiResult r WHERE r.lastHitAt < :cutoff")
+    int deleteNotHitSince(@Param("cutoff") LocalDateTime cutoff);
+}
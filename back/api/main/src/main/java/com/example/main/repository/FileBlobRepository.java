@@ -0,0 +1,37 @@
+package com.example.main.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.main.entity.FileBlob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.touchedAt = :now WHERE b.sha256 = :sha256")
+    int touch(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + 1 WHERE b.sha256 = :sha256")
+    int incrementRef(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1, b.touchedAt = :now WHERE b.sha256 = :sha256 AND b.refCount > 0")
+    int decrementRef(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.sha256 FROM FileBlob b WHERE b.refCount = 0 AND b.touchedAt < :cutoff ORDER BY b.touchedAt")
+    List<String> findUnreferenced(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // 조회 후 다시 참조/업로드됐으면 지우지 않는다
+    @Modifying
+    @Query("DELETE FROM FileBlob b WHERE b.sha256 = :sha256 AND b.refCount = 0 AND b.touchedAt < :cutoff")
+    int deleteIfUnreferenced(@Param("sha256") String sha256, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,53 @@
+package com.example.main.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.main.entity.GenerationJob;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, Long> {
+
+    // lock.timeout = -2 → Hibernate가 SELECT ... FOR UPDATE SKIP LOCKED 로 변환 (다른 노드가 잡은 행은 건너뜀)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM GenerationJob j WHERE j.status = :status AND j.nextRunAt <= :now ORDER BY j.nextRunAt, j.id")
+    List<GenerationJob> findDueForUpdate(@Param("status") GenerationJob.Status status,
+                                         @Param("now") LocalDateTime now,
+                                         Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM GenerationJob j WHERE j.id = :id")
+    Optional<GenerationJob> findByIdForUpdate(@Param("id") Long id);
+
+    Optional<GenerationJob> findFirstByNoteIdOrderByIdDesc(Long noteId);
+
+    long countByStatusIn(Collection<GenerationJob.Status> statuses);
+
+    Optional<GenerationJob> findFirstByNoteIdAndStatusIn(Long noteId, Collection<GenerationJob.Status> statuses);
+
+    // 잠금 시간이 지난 RUNNING 작업. 여러 노드의 정리 작업이 겹치지 않도록 SKIP LOCKED
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM GenerationJob j WHERE j.status = :status AND j.lockedAt < :staleBefore ORDER BY j.lockedAt, j.id")
+    List<GenerationJob> findStaleForUpdate(@Param("status") GenerationJob.Status status,
+                                           @Param("staleBefore") LocalDateTime staleBefore,
+                                           Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM GenerationJob j WHERE j.noteId = :noteId")
+    void deleteByNoteId(@Param("noteId") Long noteId);
+}
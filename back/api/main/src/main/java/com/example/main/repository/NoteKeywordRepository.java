@@ -0,0 +1,16 @@
+package com.example.main.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.main.entity.NoteKeyword;
+
+@Repository
+public interface NoteKeywordRepository extends JpaRepository<NoteKeyword, Long> {
+    @Modifying
+    @Query("DELETE FROM NoteKeyword k WHERE k.noteId = :noteId")
+    void deleteByNoteId(@Param("noteId") Long noteId);
+}
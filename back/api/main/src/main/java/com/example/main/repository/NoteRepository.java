@@ -1,14 +1,91 @@
 package com.example.main.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.main.dto.DueReviewDto;
+import com.example.main.dto.NoteListVersion;
+import com.example.main.dto.NoteSummary;
 import com.example.main.entity.Note;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface NoteRepository extends JpaRepository<Note, Long> {
-    List<Note> findByUserId(Long userId);
-    List<Note> findByIsPublicTrue();
-} 
\ No newline at end of file
+public interface NoteRepository extends JpaRepository<Note, Long>, NoteRepositoryCustom {
+    // 목록 화면용 요약: 요약 본문(content TEXT)과 pdfUrl은 읽지 않고 작성자 이름은 조인 한 번으로
+    String SUMMARY_SELECT = "SELECT new com.example.main.dto.NoteSummary(n.id, u.id, u.username, n.title, n.category, " +
+            "n.keywords, n.description, n.imageUrls, n.createdAt, n.updatedAt, n.lastReviewedDate, n.isPublic, " +
+            "n.generationStatus) FROM Note n JOIN n.user u ";
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId ORDER BY n.id")
+    List<NoteSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE n.isPublic = true ORDER BY n.id")
+    List<NoteSummary> findPublicSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE n.id IN :ids")
+    List<NoteSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 검색 색인 재구성용 id 키셋 페이징
+    @EntityGraph(attributePaths = "user")
+    List<Note> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 복습 대상: 생성일이 주어진 4개 날짜 구간([start, start+1일)) 중 하나에 속하는 노트.
+     * (user_id, created_at) 인덱스 범위 스캔 4번으로 끝난다.
+     */
+    @Query("SELECT new com.example.main.dto.DueReviewDto(n.id, n.title, n.category, n.createdAt, n.lastReviewedDate) " +
+            "FROM Note n WHERE n.user.id = :userId AND (" +
+            "(n.createdAt >= :d1 AND n.createdAt < :d1End) OR " +
+            "(n.createdAt >= :d3 AND n.createdAt < :d3End) OR " +
+            "(n.createdAt >= :d7 AND n.createdAt < :d7End) OR " +
+            "(n.createdAt >= :d30 AND n.createdAt < :d30End))")
+    List<DueReviewDto> findDueReviews(@Param("userId") Long userId,
+                                      @Param("d1") LocalDateTime d1, @Param("d1End") LocalDateTime d1End,
+                                      @Param("d3") LocalDateTime d3, @Param("d3End") LocalDateTime d3End,
+                                      @Param("d7") LocalDateTime d7, @Param("d7End") LocalDateTime d7End,
+                                      @Param("d30") LocalDateTime d30, @Param("d30End") LocalDateTime d30End);
+
+    // 망각곡선 마커용: 생성 시각만 읽는다 (인덱스만으로 처리)
+    @Query("SELECT n.createdAt FROM Note n WHERE n.user.id = :userId")
+    List<LocalDateTime> findCreatedAtByUserId(@Param("userId") Long userId);
+
+    // 사용자 통계 재구성용 집계 (통계 행이 없을 때 한 번만)
+    @Query("SELECT n.category, COUNT(n) FROM Note n WHERE n.user.id = :userId GROUP BY n.category")
+    List<Object[]> countByCategory(@Param("userId") Long userId);
+
+    // 생성 스트림 구독 중인 노트의 상태만 읽는다 (본문은 읽지 않음). [id, generationStatus]
+    @Query("SELECT n.id, n.generationStatus FROM Note n WHERE n.id IN :ids")
+    List<Object[]> findGenerationStatuses(@Param("ids") Collection<Long> ids);
+
+    // 조건부 GET용 버전 조회: PK 한 행에서 컬럼 하나만 읽는다 (본문/퀴즈를 읽지 않음)
+    @Query("SELECT n.updatedAt FROM Note n WHERE n.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT n.quizVersion FROM Note n WHERE n.id = :id")
+    Optional<Long> findQuizVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.main.dto.NoteListVersion(COUNT(n), MAX(n.updatedAt)) FROM Note n WHERE n.user.id = :userId")
+    NoteListVersion findListVersionByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.main.dto.NoteListVersion(COUNT(n), MAX(n.updatedAt)) FROM Note n WHERE n.isPublic = true")
+    NoteListVersion findPublicListVersion();
+
+    // 상태도 응답에 보이므로 updatedAt을 같이 올려 ETag가 바뀌게 한다 (시각은 @PreUpdate와 같은 애플리케이션 시계)
+    default int updateGenerationStatus(Collection<Long> ids, Note.GenerationStatus status) {
+        return updateGenerationStatus(ids, status, LocalDateTime.now());
+    }
+
+    @Modifying
+    @Query("UPDATE Note n SET n.generationStatus = :status, n.updatedAt = :now WHERE n.id IN :ids")
+    int updateGenerationStatus(@Param("ids") Collection<Long> ids, @Param("status") Note.GenerationStatus status,
+                               @Param("now") LocalDateTime now);
+}
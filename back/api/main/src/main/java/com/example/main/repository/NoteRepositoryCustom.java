@@ -0,0 +1,13 @@
+package com.example.main.repository;
+
+import com.example.main.util.NoteCursor;
+
+import java.util.List;
+
+public interface NoteRepositoryCustom {
+    /**
+     * 공개 노트를 (created_at DESC, id DESC) 순으로 커서 다음부터 최대 {@code limit}개 id만 조회한다.
+     * null인 필터는 적용하지 않는다.
+     */
+    List<Long> findPublicFeedIds(String title, String category, String keyword, NoteCursor after, int limit);
+}
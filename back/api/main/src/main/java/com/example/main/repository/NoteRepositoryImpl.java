@@ -0,0 +1,40 @@
+package com.example.main.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import com.example.main.util.NoteCursor;
+
+import java.util.List;
+
+public class NoteRepositoryImpl implements NoteRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findPublicFeedIds(String title, String category, String keyword, NoteCursor after, int limit) {
+        // 인덱스 (is_public, [category|title,] created_at, id) 범위 스캔으로 끝나도록 OFFSET 없이 키셋 조건만 사용
+        StringBuilder jpql = new StringBuilder("SELECT n.id FROM Note n WHERE n.isPublic = true");
+        if (title != null) jpql.append(" AND n.title = :title");
+        if (category != null) jpql.append(" AND n.category = :category");
+        if (keyword != null) {
+            // 키워드는 JSON 컬럼이라 별도 색인 테이블 (keyword, note_id)로 찾는다
+            jpql.append(" AND EXISTS (SELECT 1 FROM NoteKeyword k WHERE k.keyword = :keyword AND k.noteId = n.id)");
+        }
+        if (after != null) {
+            jpql.append(" AND (n.createdAt < :cursorCreatedAt OR (n.createdAt = :cursorCreatedAt AND n.id < :cursorId))");
+        }
+        jpql.append(" ORDER BY n.createdAt DESC, n.id DESC");
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        if (title != null) query.setParameter("title", title);
+        if (category != null) query.setParameter("category", category);
+        if (keyword != null) query.setParameter("keyword", keyword);
+        if (after != null) {
+            query.setParameter("cursorCreatedAt", after.createdAt());
+            query.setParameter("cursorId", after.id());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
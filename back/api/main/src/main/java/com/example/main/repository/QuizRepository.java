@@ -1,6 +1,9 @@
 package com.example.main.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.main.entity.Quiz;
@@ -10,5 +13,8 @@ import java.util.List;
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
     List<Quiz> findByNoteId(Long noteId);
-    void deleteByNoteId(Long noteId);
-} 
\ No newline at end of file
+
+    @Modifying
+    @Query("DELETE FROM Quiz q WHERE q.note.id = :noteId")
+    void deleteByNoteId(@Param("noteId") Long noteId);
+}
@@ -0,0 +1,23 @@
+package com.example.main.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.main.entity.ReviewEvent;
+
+import java.util.List;
+
+@Repository
+public interface ReviewEventRepository extends JpaRepository<ReviewEvent, Long> {
+    // 노트 상세의 복습 히스토리: 최근 이벤트부터 [type, reviewDay, occurredAt] (note_id, occurred_at 인덱스)
+    @Query("SELECT e.type, e.reviewDay, e.occurredAt FROM ReviewEvent e " +
+            "WHERE e.noteId = :noteId ORDER BY e.occurredAt DESC, e.id DESC")
+    List<Object[]> findRecentByNoteId(@Param("noteId") Long noteId, Pageable pageable);
+
+    // 사용자 통계 재구성용: [reviewDay, type, count]
+    @Query("SELECT e.reviewDay, e.type, COUNT(e) FROM ReviewEvent e WHERE e.userId = :userId GROUP BY e.reviewDay, e.type")
+    List<Object[]> countByDayAndType(@Param("userId") Long userId);
+}
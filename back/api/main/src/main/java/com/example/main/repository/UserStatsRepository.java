@@ -0,0 +1,20 @@
+package com.example.main.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.main.entity.UserStats;
+
+import java.util.Optional;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+    // 같은 사용자의 증분 갱신을 직렬화한다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStats s WHERE s.userId = :userId")
+    Optional<UserStats> findByIdForUpdate(@Param("userId") Long userId);
+}
@@ -0,0 +1,254 @@
+package com.example.main.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 공개 노트의 과목명(title)/학기(category)/키워드별 노트 수와 최근성 점수(trending)를 메모리에서 증분 집계한다.
+ * 검색 색인과 같은 NoteIndexEvent(커밋 후)로 갱신되고, 기동 시 NoteSearchIndexLoader가 다시 채운다.
+ *
+ * <p>trending 점수는 노트마다 공개된 시각(publishedAt, 예전 노트는 생성 시각)부터 반감기로 줄어드는 가중치의 합이다.
+ * 오래전에 만들었다가 오늘 공개한 노트도 오늘 공개된 노트로 센다.
+ * 가중치를 기준 시각(epoch) 대비 exp(λ·(publishedAt − epoch))로 저장하면 시간이 지나도 모든 값에 같은 배율만 곱해지므로,
+ * 노트 추가/삭제는 더하기/빼기 한 번이고 조회할 때만 exp(−λ·(now − epoch))를 곱해 현재 점수로 바꾼다.
+ */
+@Component
+public class NoteFacetIndex {
+    public enum Facet {
+        TITLE, CATEGORY, KEYWORD
+    }
+
+    public record FacetCount(String value, int count, double score) {
+    }
+
+    // exp(709)를 넘으면 double이 넘치므로 그 전에 기준 시각을 옮긴다
+    private static final double MAX_EXPONENT = 600;
+
+    private final double lambda; // 초당 감쇠율
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 아래 필드는 모두 lock으로 보호
+    private final Map<Long, Entry> notes = new HashMap<>();
+    private final Map<Facet, Map<String, Counter>> counters = new EnumMap<>(Facet.class);
+    private long epochSeconds;
+    private int publicNotes;
+    private Set<Long> rebuildTombstones; // 재색인 중 삭제된 노트 (재색인이 되살리지 않도록)
+
+    // 비공개 노트도 재색인 시 최신 여부 판단을 위해 남겨 두고, 집계에는 공개 노트만 넣는다
+    private record Entry(boolean isPublic, String title, String category, Set<String> keywords,
+                         long publishedAt, LocalDateTime updatedAt) {
+    }
+
+    private static final class Counter {
+        int count;
+        double weight;
+    }
+
+    public NoteFacetIndex(@Value("${facets.half-life-hours:168}") double halfLifeHours) {
+        this.lambda = Math.log(2) / (halfLifeHours * 3600);
+        for (Facet facet : Facet.values()) {
+            counters.put(facet, new HashMap<>());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNoteChanged(NoteIndexEvent event) {
+        if (event.document() == null) {
+            remove(event.noteId());
+        } else {
+            index(event.document());
+        }
+    }
+
+    /**
+     * 노트를 집계에 반영한다(있으면 이전 값을 빼고 다시 더한다).
+     */
+    public void index(NoteSearchDocument doc) {
+        upsert(doc, false);
+    }
+
+    /**
+     * 재색인용: 이미 더 최신 버전이 반영돼 있거나 재색인 중 삭제된 노트면 건너뛴다.
+     */
+    public void indexIfNewer(NoteSearchDocument doc) {
+        upsert(doc, true);
+    }
+
+    public void remove(Long noteId) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = notes.remove(noteId);
+            if (existing != null) apply(existing, -1);
+            if (rebuildTombstones != null) rebuildTombstones.add(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildTombstones = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildTombstones = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 노트 수 상위 {@code limit}개 (같으면 값 순).
+     */
+    public List<FacetCount> top(Facet facet, int limit, LocalDateTime now) {
+        return select(facet, limit, now, Comparator.<Map.Entry<String, Counter>>comparingInt(e -> e.getValue().count));
+    }
+
+    /**
+     * 최근성 점수 상위 {@code limit}개. 최근에 공개된 노트가 많은 값일수록 위에 온다.
+     */
+    public List<FacetCount> trending(Facet facet, int limit, LocalDateTime now) {
+        return select(facet, limit, now, Comparator.<Map.Entry<String, Counter>>comparingDouble(e -> e.getValue().weight));
+    }
+
+    private List<FacetCount> select(Facet facet, int limit, LocalDateTime now,
+                                    Comparator<Map.Entry<String, Counter>> rank) {
+        if (limit <= 0) return List.of();
+        // 점수가 같으면 값이 앞서는 쪽이 위로 오도록 힙에서는 뒤쪽 값을 먼저 뺀다
+        Comparator<Map.Entry<String, Counter>> order =
+                rank.thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Map.Entry<String, Counter>> heap = new PriorityQueue<>(order);
+            for (Map.Entry<String, Counter> e : counters.get(facet).entrySet()) {
+                heap.add(e);
+                if (heap.size() > limit) heap.poll();
+            }
+            double elapsed = lambda * (seconds(now) - epochSeconds);
+            List<FacetCount> result = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                Map.Entry<String, Counter> e = heap.poll();
+                // 로그 공간에서 곱해 기준 시각에서 멀어져도 넘치지 않게
+                double score = Math.exp(Math.log(e.getValue().weight) - elapsed);
+                result.add(new FacetCount(e.getKey(), e.getValue().count, score));
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsert(NoteSearchDocument doc, boolean onlyIfNewer) {
+        Entry entry = entryOf(doc);
+        lock.writeLock().lock();
+        try {
+            Entry existing = notes.get(doc.noteId());
+            if (onlyIfNewer) {
+                if (rebuildTombstones != null && rebuildTombstones.contains(doc.noteId())) return;
+                if (existing != null && isNotOlder(existing.updatedAt(), doc.updatedAt())) return;
+            }
+            if (existing != null) apply(existing, -1);
+            notes.put(doc.noteId(), entry);
+            apply(entry, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 노트 하나의 기여분을 더하거나(+1) 뺀다(-1). 쓰기 잠금 안에서 호출.
+     */
+    private void apply(Entry entry, int sign) {
+        if (!entry.isPublic()) return;
+        if (sign > 0 && publicNotes == 0) {
+            // 비어 있으면 기준 시각을 첫 노트에 맞춘다 (지수가 0 근처에서 시작)
+            epochSeconds = entry.publishedAt();
+        } else if (sign > 0 && lambda * (entry.publishedAt() - epochSeconds) > MAX_EXPONENT) {
+            rebase(entry.publishedAt());
+        }
+        publicNotes += sign;
+        double weight = Math.exp(lambda * (entry.publishedAt() - epochSeconds));
+        adjust(Facet.TITLE, entry.title(), sign, weight);
+        adjust(Facet.CATEGORY, entry.category(), sign, weight);
+        for (String keyword : entry.keywords()) {
+            adjust(Facet.KEYWORD, keyword, sign, weight);
+        }
+    }
+
+    private void adjust(Facet facet, String value, int sign, double weight) {
+        if (value == null) return;
+        Map<String, Counter> values = counters.get(facet);
+        Counter counter = values.computeIfAbsent(value, v -> new Counter());
+        counter.count += sign;
+        if (counter.count <= 0) {
+            values.remove(value);
+        } else {
+            // 빼기에서 생기는 부동소수 오차로 음수가 되지 않도록
+            counter.weight = Math.max(0, counter.weight + sign * weight);
+        }
+    }
+
+    /**
+     * 기준 시각을 옮기고 모든 가중치에 같은 배율을 곱한다. 상대 순위와 현재 점수는 그대로다.
+     */
+    private void rebase(long newEpochSeconds) {
+        double factor = Math.exp(-lambda * (newEpochSeconds - epochSeconds));
+        for (Map<String, Counter> values : counters.values()) {
+            for (Counter counter : values.values()) {
+                counter.weight *= factor;
+            }
+        }
+        epochSeconds = newEpochSeconds;
+    }
+
+    private static Entry entryOf(NoteSearchDocument doc) {
+        Set<String> keywords = new LinkedHashSet<>();
+        if (doc.keywords() != null) {
+            for (String keyword : doc.keywords()) {
+                String value = normalize(keyword);
+                if (value != null) keywords.add(value);
+            }
+        }
+        // 공개 시각이 없는 예전 행은 생성 시각으로
+        LocalDateTime publishedAt = doc.publishedAt() != null ? doc.publishedAt()
+                : doc.createdAt() != null ? doc.createdAt() : doc.updatedAt();
+        return new Entry(doc.isPublic(), normalize(doc.title()), normalize(doc.category()), keywords,
+                publishedAt != null ? seconds(publishedAt) : 0, doc.updatedAt());
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) return null;
+        return value.strip();
+    }
+
+    private static boolean isNotOlder(LocalDateTime indexed, LocalDateTime candidate) {
+        return indexed != null && (candidate == null || !indexed.isBefore(candidate));
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.main.search;
+
+/**
+ * 노트가 생성/수정/삭제되었음을 색인에 알리는 이벤트. 커밋 후에 반영된다.
+ * {@code document}가 null이면 삭제.
+ */
+public record NoteIndexEvent(Long noteId, NoteSearchDocument document) {
+
+    public static NoteIndexEvent upsert(NoteSearchDocument document) {
+        return new NoteIndexEvent(document.noteId(), document);
+    }
+
+    public static NoteIndexEvent delete(Long noteId) {
+        return new NoteIndexEvent(noteId, null);
+    }
+}
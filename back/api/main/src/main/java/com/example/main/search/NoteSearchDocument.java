@@ -0,0 +1,43 @@
+package com.example.main.search;
+
+import com.example.main.entity.Note;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 색인할 노트 필드 스냅샷. 검색 색인과 패싯 집계가 같이 쓴다.
+ */
+public record NoteSearchDocument(
+        Long noteId,
+        Long ownerId,
+        boolean isPublic,
+        String title,
+        String category,
+        List<String> keywords,
+        String description,
+        String content,
+        LocalDateTime createdAt,
+        LocalDateTime publishedAt, // 마지막으로 공개로 바뀐 시각 (비공개면 null일 수 있음)
+        LocalDateTime updatedAt
+) {
+
+    /**
+     * 필드를 복사해 두므로 커밋 후 다른 스레드에서 읽어도 된다.
+     */
+    public static NoteSearchDocument of(Note note) {
+        return new NoteSearchDocument(
+                note.getId(),
+                note.getUser() != null ? note.getUser().getId() : null,
+                note.isPublic(),
+                note.getTitle(),
+                note.getCategory(),
+                note.getKeywords() != null ? new ArrayList<>(note.getKeywords()) : List.of(),
+                note.getDescription(),
+                note.getContent(),
+                note.getCreatedAt(),
+                note.getPublishedAt(),
+                note.getUpdatedAt());
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.main.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 노트 제목/키워드/설명/AI 요약에 대한 메모리 내 역색인 (BM25 랭킹).
+ *
+ * <p>문서마다 내부 순번(ordinal)을 붙이고, 포스팅은 term → (ordinal[], tf[]) 배열로 저장한다.
+ * 수정/삭제 시 기존 ordinal만 죽은 것으로 표시하고, 죽은 포스팅이 절반을 넘으면 전체를 압축한다.
+ * 포스팅 한 건이 6바이트 정도라 수십만 건의 노트도 힙에 올릴 수 있다.
+ */
+@Slf4j
+@Component
+public class NoteSearchIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int KEYWORD_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_POSTINGS_FOR_COMPACTION = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 아래 필드는 모두 lock으로 보호
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalByNoteId = new HashMap<>();
+    private Doc[] docs = new Doc[1024];
+    private int nextOrdinal;
+    private int liveDocs;
+    private long totalLength;
+    private long totalPostings;
+    private long deadPostings;
+    private Set<Long> rebuildTombstones; // 재색인 중 삭제된 노트 (재색인이 되살리지 않도록)
+
+    private record Doc(long noteId, long ownerId, boolean isPublic, int length, int termCount,
+                       LocalDateTime updatedAt) {
+    }
+
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        short[] tfs = new short[4];
+        int size;
+
+        void add(int ordinal, int tf) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            ordinals[size] = ordinal;
+            tfs[size] = (short) Math.min(tf, Short.MAX_VALUE);
+            size++;
+        }
+    }
+
+    /**
+     * 질의 한 번의 ordinal → 점수 누적 표 (개방 주소법, 선형 탐사).
+     * 칸 수는 후보 포스팅 수의 2배 이상인 2의 거듭제곱이라 채움률이 절반을 넘지 않는다.
+     */
+    private static final class ScoreTable {
+        final int[] keys; // ordinal + 1, 0이면 빈 칸
+        final float[] values;
+        int size;
+        private final int mask;
+
+        ScoreTable(long candidates) {
+            int capacity = 16;
+            while (capacity < candidates * 2 && capacity < 1 << 30) capacity <<= 1;
+            keys = new int[capacity];
+            values = new float[capacity];
+            mask = capacity - 1;
+        }
+
+        void add(int ordinal, float score) {
+            int key = ordinal + 1;
+            int h = ordinal * 0x9E3779B9;
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] += score;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNoteChanged(NoteIndexEvent event) {
+        if (event.document() == null) {
+            remove(event.noteId());
+        } else {
+            index(event.document());
+        }
+    }
+
+    /**
+     * 노트를 색인한다(있으면 교체).
+     */
+    public void index(NoteSearchDocument doc) {
+        upsert(doc, false);
+    }
+
+    /**
+     * 재색인용: 이미 더 최신 버전이 색인돼 있거나 재색인 중 삭제된 노트면 건너뛴다.
+     */
+    public void indexIfNewer(NoteSearchDocument doc) {
+        upsert(doc, true);
+    }
+
+    public void remove(Long noteId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByNoteId.remove(noteId);
+            if (ordinal != null) markDead(ordinal);
+            if (rebuildTombstones != null) rebuildTombstones.add(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildTombstones = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildTombstones = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25로 점수를 매겨 {@code viewerId}가 볼 수 있는 노트(공개 또는 본인 노트)만 돌려준다.
+     */
+    public SearchHits search(String query, Long viewerId, int offset, int limit) {
+        Map<String, Integer> queryTerms = new HashMap<>();
+        SearchTokenizer.tokenize(query, 1, queryTerms);
+        if (queryTerms.isEmpty() || limit <= 0) return new SearchHits(0, List.of());
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) return new SearchHits(0, List.of());
+            double avgLength = (double) totalLength / liveDocs;
+            List<Postings> matched = new ArrayList<>(queryTerms.size());
+            long candidates = 0;
+            for (String term : queryTerms.keySet()) {
+                Postings p = postings.get(term);
+                if (p == null) continue;
+                matched.add(p);
+                candidates += p.size;
+            }
+            if (candidates == 0) return new SearchHits(0, List.of());
+            // 점수는 후보 포스팅 수만큼만 잡은 표에 누적 (전체 문서 수에 비례하는 배열을 만들지 않음)
+            ScoreTable scores = new ScoreTable(candidates);
+
+            for (Postings p : matched) {
+                double idf = Math.log(1 + (liveDocs - p.size + 0.5) / (p.size + 0.5));
+                if (idf <= 0) idf = 0.01; // 죽은 포스팅 때문에 df가 과대추정된 경우
+                for (int i = 0; i < p.size; i++) {
+                    int ordinal = p.ordinals[i];
+                    Doc doc = docs[ordinal];
+                    if (doc == null) continue;
+                    int tf = p.tfs[i];
+                    double norm = K1 * (1 - B + B * doc.length() / avgLength);
+                    scores.add(ordinal, (float) (idf * tf * (K1 + 1) / (tf + norm)));
+                }
+            }
+
+            // 점수 상위 offset+limit개만 힙으로 유지 (원소는 표의 칸 번호)
+            int keep = offset + limit;
+            float[] values = scores.values;
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, Math.min(keep, scores.size)),
+                    (a, b) -> Float.compare(values[a], values[b]));
+            long total = 0;
+            for (int slot = 0; slot < scores.keys.length; slot++) {
+                if (scores.keys[slot] == 0) continue;
+                Doc doc = docs[scores.keys[slot] - 1];
+                if (!doc.isPublic() && (viewerId == null || doc.ownerId() != viewerId)) continue;
+                total++;
+                if (heap.size() < keep) {
+                    heap.add(slot);
+                } else if (values[slot] > values[heap.peek()]) {
+                    heap.poll();
+                    heap.add(slot);
+                }
+            }
+            List<Integer> ranked = new ArrayList<>(heap);
+            ranked.sort((a, b) -> Float.compare(values[b], values[a]));
+            List<Long> noteIds = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                noteIds.add(docs[scores.keys[ranked.get(i)] - 1].noteId());
+            }
+            return new SearchHits(total, noteIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsert(NoteSearchDocument doc, boolean onlyIfNewer) {
+        // 토큰화는 잠금 밖에서
+        Map<String, Integer> terms = new HashMap<>();
+        SearchTokenizer.tokenize(doc.title(), TITLE_WEIGHT, terms);
+        if (doc.keywords() != null) {
+            for (String keyword : doc.keywords()) {
+                SearchTokenizer.tokenize(keyword, KEYWORD_WEIGHT, terms);
+            }
+        }
+        SearchTokenizer.tokenize(doc.description(), DESCRIPTION_WEIGHT, terms);
+        SearchTokenizer.tokenize(doc.content(), CONTENT_WEIGHT, terms);
+        int length = 0;
+        for (int tf : terms.values()) length += tf;
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinalByNoteId.get(doc.noteId());
+            if (onlyIfNewer) {
+                if (rebuildTombstones != null && rebuildTombstones.contains(doc.noteId())) return;
+                if (existing != null && isNotOlder(docs[existing].updatedAt(), doc.updatedAt())) return;
+            }
+            if (existing != null) markDead(existing);
+
+            int ordinal = nextOrdinal++;
+            if (ordinal == docs.length) docs = Arrays.copyOf(docs, docs.length * 2);
+            docs[ordinal] = new Doc(doc.noteId(), doc.ownerId() != null ? doc.ownerId() : -1, doc.isPublic(),
+                    length, terms.size(), doc.updatedAt());
+            ordinalByNoteId.put(doc.noteId(), ordinal);
+            for (Map.Entry<String, Integer> e : terms.entrySet()) {
+                postings.computeIfAbsent(e.getKey(), k -> new Postings()).add(ordinal, e.getValue());
+            }
+            liveDocs++;
+            totalLength += length;
+            totalPostings += terms.size();
+            if (deadPostings > MIN_POSTINGS_FOR_COMPACTION && deadPostings * 2 > totalPostings) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isNotOlder(LocalDateTime indexed, LocalDateTime candidate) {
+        return indexed != null && (candidate == null || !indexed.isBefore(candidate));
+    }
+
+    private void markDead(int ordinal) {
+        Doc doc = docs[ordinal];
+        if (doc == null) return;
+        docs[ordinal] = null;
+        liveDocs--;
+        totalLength -= doc.length();
+        deadPostings += doc.termCount();
+    }
+
+    /**
+     * 죽은 포스팅을 제거하고 살아 있는 문서의 ordinal을 0부터 다시 매긴다. 쓰기 잠금 안에서 호출.
+     */
+    private void compact() {
+        long start = System.nanoTime();
+        int[] remap = new int[nextOrdinal];
+        Doc[] compacted = new Doc[Math.max(1024, liveDocs * 2)];
+        int next = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (docs[ordinal] == null) {
+                remap[ordinal] = -1;
+            } else {
+                remap[ordinal] = next;
+                compacted[next] = docs[ordinal];
+                ordinalByNoteId.put(docs[ordinal].noteId(), next);
+                next++;
+            }
+        }
+        long remaining = 0;
+        Iterator<Postings> it = postings.values().iterator();
+        while (it.hasNext()) {
+            Postings p = it.next();
+            int w = 0;
+            for (int r = 0; r < p.size; r++) {
+                int mapped = remap[p.ordinals[r]];
+                if (mapped < 0) continue;
+                p.ordinals[w] = mapped;
+                p.tfs[w] = p.tfs[r];
+                w++;
+            }
+            if (w == 0) {
+                it.remove();
+            } else {
+                p.size = w;
+                remaining += w;
+            }
+        }
+        docs = compacted;
+        nextOrdinal = next;
+        totalPostings = remaining;
+        deadPostings = 0;
+        log.info("Compacted search index: {} docs, {} postings in {} ms",
+                liveDocs, remaining, (System.nanoTime() - start) / 1_000_000);
+    }
+}
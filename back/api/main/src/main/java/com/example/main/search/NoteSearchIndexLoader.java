@@ -0,0 +1,85 @@
+package com.example.main.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.main.entity.Note;
+import com.example.main.repository.NoteRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기동 시 DB의 노트로 검색 색인과 패싯 집계를 다시 만든다.
+ * 백그라운드 스레드에서 id 순 배치로 읽으므로 기동을 막지 않고, 그 사이 들어온 변경은 이벤트로 반영된다.
+ */
+@Slf4j
+@Component
+public class NoteSearchIndexLoader {
+    private final NoteRepository noteRepository;
+    private final NoteSearchIndex searchIndex;
+    private final NoteFacetIndex facetIndex;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${search.rebuild-batch-size:500}")
+    private int batchSize;
+
+    public NoteSearchIndexLoader(NoteRepository noteRepository, NoteSearchIndex searchIndex,
+                                 NoteFacetIndex facetIndex, PlatformTransactionManager transactionManager) {
+        this.noteRepository = noteRepository;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!rebuildOnStartup) return;
+        Thread t = new Thread(this::rebuild, "search-index-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        searchIndex.beginRebuild();
+        facetIndex.beginRebuild();
+        try {
+            long lastId = 0;
+            int count = 0;
+            while (true) {
+                final long after = lastId;
+                List<NoteSearchDocument> batch = readOnlyTx.execute(status -> {
+                    List<NoteSearchDocument> docs = new ArrayList<>();
+                    for (Note note : noteRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, batchSize))) {
+                        docs.add(NoteSearchDocument.of(note));
+                    }
+                    return docs;
+                });
+                if (batch == null || batch.isEmpty()) break;
+                for (NoteSearchDocument doc : batch) {
+                    searchIndex.indexIfNewer(doc);
+                    facetIndex.indexIfNewer(doc);
+                }
+                count += batch.size();
+                lastId = batch.get(batch.size() - 1).noteId();
+            }
+            log.info("Search index rebuilt: {} notes in {} ms", count, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Search index rebuild failed", e);
+        } finally {
+            searchIndex.endRebuild();
+            facetIndex.endRebuild();
+        }
+    }
+}
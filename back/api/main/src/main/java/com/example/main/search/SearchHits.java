@@ -0,0 +1,9 @@
+package com.example.main.search;
+
+import java.util.List;
+
+/**
+ * 검색 결과: 조건에 맞는 전체 건수와 요청한 페이지의 노트 id(점수 내림차순).
+ */
+public record SearchHits(long total, List<Long> noteIds) {
+}
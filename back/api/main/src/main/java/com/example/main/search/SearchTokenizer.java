@@ -0,0 +1,72 @@
+package com.example.main.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 검색용 토크나이저.
+ * 영문/숫자는 단어 단위, 한글은 어절 전체 + 음절 bigram으로 나눈다.
+ * 형태소 분석기 없이도 "운영체제의" 같은 조사 붙은 어절이 "운영체제" 검색에 걸리도록 하기 위함.
+ */
+public final class SearchTokenizer {
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * {@code text}의 토큰을 {@code weight}만큼 가중해 {@code out}에 누적한다.
+     */
+    public static void tokenize(String text, int weight, Map<String, Integer> out) {
+        if (text == null || text.isEmpty()) return;
+        String norm = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int n = norm.length();
+        int i = 0;
+        while (i < n) {
+            int cp = norm.codePointAt(i);
+            if (!Character.isLetterOrDigit(cp)) {
+                i += Character.charCount(cp);
+                continue;
+            }
+            int start = i;
+            boolean hangul = isHangul(cp);
+            while (i < n) {
+                int c = norm.codePointAt(i);
+                if (!Character.isLetterOrDigit(c) || isHangul(c) != hangul) break;
+                i += Character.charCount(c);
+            }
+            String run = norm.substring(start, i);
+            if (hangul) {
+                emitHangul(run, weight, out);
+            } else {
+                emitWord(run, weight, out);
+            }
+        }
+    }
+
+    private static void emitHangul(String run, int weight, Map<String, Integer> out) {
+        if (run.length() > MAX_TOKEN_LENGTH) return;
+        add(run, weight, out);
+        if (run.length() <= 2) return;
+        // 한글 음절은 모두 BMP라 char 단위로 잘라도 안전
+        for (int j = 0; j + 2 <= run.length(); j++) {
+            add(run.substring(j, j + 2), weight, out);
+        }
+    }
+
+    private static void emitWord(String run, int weight, Map<String, Integer> out) {
+        if (run.length() > MAX_TOKEN_LENGTH) return;
+        // 한 글자 영문은 노이즈가 많아 제외 (숫자는 유지)
+        if (run.length() == 1 && !Character.isDigit(run.charAt(0))) return;
+        add(run, weight, out);
+    }
+
+    private static void add(String token, int weight, Map<String, Integer> out) {
+        out.merge(token, weight, Integer::sum);
+    }
+
+    private static boolean isHangul(int cp) {
+        return Character.UnicodeScript.of(cp) == Character.UnicodeScript.HANGUL;
+    }
+}
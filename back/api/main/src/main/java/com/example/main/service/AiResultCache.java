@@ -0,0 +1,208 @@
+package com.example.main.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.dto.AiGenerateResponse;
+import com.example.main.dto.AiQuiz;
+import com.example.main.dto.GenerationInput;
+import com.example.main.entity.AiResult;
+import com.example.main.entity.GenerationJob;
+import com.example.main.repository.AiResultRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * AI 요약/퀴즈 결과 캐시. 메모리(Caffeine, W-TinyLFU) 앞단 + ai_results 테이블.
+ * 키는 AI 서버가 실제로 쓰는 입력(정규화한 텍스트 + 미디어 내용 해시)과 ai.prompt-version으로 만든다.
+ * app.py의 프롬프트를 바꾸면 ai.prompt-version을 올려 이전 결과를 무효화해야 한다.
+ * 조회 결과는 ai.results.lookups{result=memory|db|miss} 카운터로, 메모리 캐시는 ai.results 이름으로 노출된다.
+ */
+@Slf4j
+@Service
+public class AiResultCache {
+    private static final TypeReference<List<AiQuiz>> QUIZ_LIST = new TypeReference<>() {};
+    // AI 입력용 파생 이미지 / PDF 전처리 결과는 원본 blob과 같은 내용으로 본다
+    private static final Pattern DERIVED_URL = Pattern.compile("^/uploads/derived/([0-9a-f]{64})/");
+
+    private final AiResultRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, AiGenerateResponse> memory;
+    private final String promptVersion;
+    private final boolean enabled;
+    private final Counter memoryHits;
+    private final Counter dbHits;
+    private final Counter misses;
+
+    @Value("${ai.cache.retention-days:90}")
+    private long retentionDays;
+
+    public AiResultCache(AiResultRepository repository,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${ai.cache.enabled:true}") boolean enabled,
+                         @Value("${ai.cache.memory-max-size:1000}") long memoryMaxSize,
+                         @Value("${ai.prompt-version:1}") String promptVersion) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.promptVersion = promptVersion;
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(memoryMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "ai.results");
+        this.memoryHits = meterRegistry.counter("ai.results.lookups", "result", "memory");
+        this.dbHits = meterRegistry.counter("ai.results.lookups", "result", "db");
+        this.misses = meterRegistry.counter("ai.results.lookups", "result", "miss");
+    }
+
+    /**
+     * 작업 종류와 입력으로 캐시 키를 만든다.
+     * /generate는 description, 퀴즈 재생성은 note_text(요약 또는 description)만 텍스트로 쓰고,
+     * 이미지가 있으면 이미지만, 없으면 PDF를 쓰므로(app.py load_media) 키도 그대로 따른다.
+     */
+    public String keyOf(GenerationJob.Type type, GenerationInput input) {
+        StringBuilder key = new StringBuilder()
+                .append("v=").append(promptVersion).append('\n')
+                .append("type=").append(type).append('\n');
+        String text = type == GenerationJob.Type.NOTE
+                ? input.description()
+                : (input.content() != null ? input.content() : input.description());
+        key.append("text=").append(normalize(text)).append('\n');
+        List<String> imageUrls = input.imageUrls() != null ? input.imageUrls() : List.of();
+        if (!imageUrls.isEmpty()) {
+            for (String url : imageUrls) key.append("image=").append(mediaKey(url)).append('\n');
+        } else if (input.pdfUrl() != null) {
+            key.append("pdf=").append(mediaKey(input.pdfUrl())).append('\n');
+        }
+        return sha256(key.toString());
+    }
+
+    /**
+     * 캐시된 결과. 없으면 null.
+     */
+    @Transactional
+    public AiGenerateResponse get(String key) {
+        if (!enabled) return null;
+        AiGenerateResponse cached = memory.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        AiResult stored = repository.findById(key).orElse(null);
+        if (stored == null) {
+            misses.increment();
+            return null;
+        }
+        // 보존 기간 정리(lastHitAt 기준)를 위해 DB 적중만 기록한다
+        repository.recordHit(key, LocalDateTime.now());
+        cached = new AiGenerateResponse(stored.getContent(), readQuiz(stored.getQuizJson()));
+        memory.put(key, cached);
+        dbHits.increment();
+        return cached;
+    }
+
+    /**
+     * 정상 결과만 저장한다 (빈 요약/퀴즈는 다음 요청에서 다시 생성되도록 캐시하지 않음).
+     * 이미 있는 키(재생성)는 내용을 덮어써서 다른 노드와 재시작 후에도 새 결과를 쓰게 한다.
+     */
+    public void put(String key, GenerationJob.Type type, AiGenerateResponse response) {
+        if (!enabled || !isCacheable(type, response)) return;
+        memory.put(key, response);
+        String quizJson;
+        try {
+            quizJson = objectMapper.writeValueAsString(response.quizOrEmpty());
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize AI result {}: {}", key, e.getMessage());
+            return;
+        }
+        if (overwrite(key, response, quizJson)) return;
+        try {
+            repository.saveAndFlush(AiResult.builder()
+                    .cacheKey(key)
+                    .type(type)
+                    .promptVersion(promptVersion)
+                    .content(response.content())
+                    .quizJson(quizJson)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // 첫 저장이 다른 노드와 겹침: 그쪽 행에 이 결과를 덮어쓴다
+            overwrite(key, response, quizJson);
+        }
+    }
+
+    private boolean overwrite(String key, AiGenerateResponse response, String quizJson) {
+        return repository.overwrite(key, response.content(), quizJson, promptVersion, LocalDateTime.now()) > 0;
+    }
+
+    public void evictAll() {
+        memory.invalidateAll();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.cache.cleanup-interval-ms:86400000}", initialDelayString = "${ai.cache.cleanup-interval-ms:86400000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteNotHitSince(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) log.info("Removed {} AI results not used for {} days", deleted, retentionDays);
+    }
+
+    private static boolean isCacheable(GenerationJob.Type type, AiGenerateResponse response) {
+        if (response.quizOrEmpty().isEmpty()) return false;
+        return type != GenerationJob.Type.NOTE || (response.content() != null && !response.content().isBlank());
+    }
+
+    private List<AiQuiz> readQuiz(String json) {
+        if (json == null) return List.of();
+        try {
+            return objectMapper.readValue(json, QUIZ_LIST);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable cached quiz: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // 공백 차이와 유니코드 정규형(macOS의 NFD 한글 등)을 무시
+    static String normalize(String text) {
+        if (text == null) return "";
+        return Normalizer.normalize(text, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ");
+    }
+
+    // blob은 내용 해시, 그 밖의 URL(예전 UUID 파일, 외부 링크)은 URL 자체
+    static String mediaKey(String url) {
+        String sha256 = FileBlobService.hashOf(url);
+        if (sha256 != null) return sha256;
+        Matcher derived = url != null ? DERIVED_URL.matcher(url) : null;
+        if (derived != null && derived.find()) return derived.group(1);
+        return "url:" + url;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.main.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.entity.FileBlob;
+import com.example.main.repository.FileBlobRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 blob의 DB 메타데이터와 참조 수 관리. 파일 자체는 {@link UploadService}가 다룬다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileBlobService {
+    private static final Pattern BLOB_URL =
+            Pattern.compile("^/uploads/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})(\\.[a-z0-9]{1,10})?$");
+
+    private final FileBlobRepository blobRepository;
+
+    /**
+     * 업로드된 내용을 등록한다. 이미 있으면 유예 시각만 갱신하고 기존 blob을 돌려준다.
+     * 다른 노드가 같은 내용을 동시에 등록하면 DataIntegrityViolationException이 날 수 있으며, 호출자가 재시도한다.
+     */
+    @Transactional
+    public FileBlob register(String sha256, String extension, long size, String contentType) {
+        LocalDateTime now = LocalDateTime.now();
+        if (blobRepository.touch(sha256, now) > 0) {
+            return blobRepository.findById(sha256).orElseThrow();
+        }
+        return blobRepository.saveAndFlush(FileBlob.builder()
+                .sha256(sha256)
+                .extension(extension)
+                .size(size)
+                .contentType(contentType)
+                .refCount(0)
+                .touchedAt(now)
+                .build());
+    }
+
+    /**
+     * 노트가 참조하는 blob의 참조 수를 올린다. blob URL이 아닌 예전 업로드 경로는 무시한다.
+     * 노트 저장과 같은 트랜잭션에서 호출한다.
+     */
+    @Transactional
+    public void acquire(Collection<String> urls) {
+        for (String url : urls) {
+            String sha256 = hashOf(url);
+            if (sha256 != null && blobRepository.incrementRef(sha256) == 0) {
+                log.warn("Note references unknown blob {}", url);
+            }
+        }
+    }
+
+    /**
+     * 참조 수를 내린다. 0이 된 blob은 유예 시간이 지나면 {@link UploadService#sweepUnreferenced}가 지운다.
+     */
+    @Transactional
+    public void release(Collection<String> urls) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String url : urls) {
+            String sha256 = hashOf(url);
+            if (sha256 != null) blobRepository.decrementRef(sha256, now);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> findUnreferenced(LocalDateTime cutoff, int limit) {
+        return blobRepository.findUnreferenced(cutoff, PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public boolean deleteIfUnreferenced(String sha256, LocalDateTime cutoff) {
+        return blobRepository.deleteIfUnreferenced(sha256, cutoff) > 0;
+    }
+
+    /**
+     * blob URL이면 내용 해시, 아니면(예전 UUID 경로 등) null
+     */
+    public static String hashOf(String url) {
+        if (url == null) return null;
+        Matcher m = BLOB_URL.matcher(url);
+        return m.matches() ? m.group(1) : null;
+    }
+
+    public static String relativePath(String sha256, String extension) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + Objects.requireNonNullElse(extension, "");
+    }
+}
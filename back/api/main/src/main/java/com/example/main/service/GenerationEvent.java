@@ -0,0 +1,17 @@
+package com.example.main.service;
+
+import com.example.main.entity.Note;
+
+/**
+ * 노트의 AI 생성 상태가 바뀌었음을 알리는 이벤트. 커밋 후 {@link GenerationStreamHub}가 구독자에게 전달한다.
+ * quizCount는 DONE일 때 저장된 퀴즈 수.
+ */
+public record GenerationEvent(Long noteId, Note.GenerationStatus status, int quizCount) {
+    public static GenerationEvent done(Long noteId, int quizCount) {
+        return new GenerationEvent(noteId, Note.GenerationStatus.DONE, quizCount);
+    }
+
+    public static GenerationEvent status(Long noteId, Note.GenerationStatus status) {
+        return new GenerationEvent(noteId, status, 0);
+    }
+}
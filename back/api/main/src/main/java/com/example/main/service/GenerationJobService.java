@@ -0,0 +1,248 @@
+package com.example.main.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.client.AiClient;
+import com.example.main.dto.GenerationStatusDto;
+import com.example.main.entity.GenerationJob;
+import com.example.main.entity.Note;
+import com.example.main.repository.GenerationJobRepository;
+import com.example.main.repository.NoteRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * DB 기반 AI 생성 작업 큐.
+ * 노트 저장과 같은 트랜잭션에서 작업을 넣고, 워커는 SKIP LOCKED로 작업을 나눠 가져간다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GenerationJobService {
+    private static final EnumSet<GenerationJob.Status> ACTIVE =
+            EnumSet.of(GenerationJob.Status.PENDING, GenerationJob.Status.RUNNING);
+    private static final int STALE_BATCH_SIZE = 100;
+
+    private final GenerationJobRepository jobRepository;
+    private final NoteRepository noteRepository;
+    private final AiClient aiClient;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${generation.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${generation.max-backlog:200}")
+    private long maxBacklog;
+
+    @Value("${generation.backoff-base-ms:5000}")
+    private long backoffBaseMs;
+
+    @Value("${generation.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @Value("${generation.lock-timeout-ms:600000}")
+    private long lockTimeoutMs;
+
+    /**
+     * 대기/실행 중인 작업이 한도를 넘었으면 다시 시도할 때까지 기다릴 시간. 여유가 있으면 empty.
+     * 사용자가 다시 누를 수 있는 요청(퀴즈 재생성)은 이 값으로 429를 돌려준다.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Duration> backlogRetryAfter() {
+        long backlog = jobRepository.countByStatusIn(ACTIVE);
+        if (backlog < maxBacklog) return Optional.empty();
+        return Optional.of(aiClient.estimateWait((int) Math.min(Integer.MAX_VALUE, backlog)));
+    }
+
+    /**
+     * 노트에 대한 생성 작업을 큐에 넣는다. 이미 대기/실행 중인 작업이 있으면 그 작업을 돌려준다.
+     */
+    @Transactional
+    public GenerationJob enqueue(Long noteId, GenerationJob.Type type) {
+        return enqueue(noteId, type, false);
+    }
+
+    /**
+     * @param bypassCache true면 캐시된 AI 결과가 있어도 새로 생성한다 ("그래도 다시 만들기")
+     */
+    @Transactional
+    public GenerationJob enqueue(Long noteId, GenerationJob.Type type, boolean bypassCache) {
+        Optional<GenerationJob> active = jobRepository.findFirstByNoteIdAndStatusIn(noteId, ACTIVE);
+        // NOTE 작업은 퀴즈까지 만들어 주므로 같은 노트의 QUIZ 요청은 합친다
+        if (active.isPresent() && (active.get().getType() == type || active.get().getType() == GenerationJob.Type.NOTE)) {
+            if (bypassCache) active.get().setBypassCache(true);
+            return active.get();
+        }
+        GenerationJob job = GenerationJob.builder()
+                .noteId(noteId)
+                .type(type)
+                .bypassCache(bypassCache)
+                .status(GenerationJob.Status.PENDING)
+                .attempts(0)
+                .maxAttempts(maxAttempts)
+                .nextRunAt(LocalDateTime.now())
+                .build();
+        jobRepository.save(job);
+        noteRepository.updateGenerationStatus(List.of(noteId), Note.GenerationStatus.PENDING);
+        return job;
+    }
+
+    /**
+     * 실행 시각이 된 작업을 최대 {@code limit}개 가져와 RUNNING으로 표시한다.
+     * 다른 노드가 잠근 행은 건너뛰므로 여러 노드가 동시에 호출해도 같은 작업을 두 번 가져가지 않는다.
+     */
+    @Transactional
+    public List<GenerationJob> claim(String workerId, int limit) {
+        if (limit <= 0) return List.of();
+        LocalDateTime now = LocalDateTime.now();
+        List<GenerationJob> jobs = jobRepository.findDueForUpdate(
+                GenerationJob.Status.PENDING, now, PageRequest.of(0, limit));
+        if (jobs.isEmpty()) return jobs;
+        for (GenerationJob job : jobs) {
+            job.setStatus(GenerationJob.Status.RUNNING);
+            job.setLockedBy(workerId);
+            job.setLockedAt(now);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        noteRepository.updateGenerationStatus(
+                jobs.stream().map(GenerationJob::getNoteId).collect(Collectors.toSet()),
+                Note.GenerationStatus.RUNNING);
+        return jobs;
+    }
+
+    /**
+     * 워커가 여전히 작업을 소유하고 있으면 DONE으로 표시한다.
+     * 잠금 시간이 지나 다른 노드가 다시 가져간 작업이면 false를 돌려주고, 호출자는 결과를 버린다.
+     * 결과 반영과 같은 트랜잭션에서 호출해야 한다.
+     */
+    @Transactional
+    public boolean completeIfOwned(Long jobId, String workerId) {
+        GenerationJob job = jobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (!isOwned(job, workerId)) {
+            log.info("Generation job {} is no longer owned by {}, discarding result", jobId, workerId);
+            return false;
+        }
+        job.setStatus(GenerationJob.Status.DONE);
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+        job.setLastError(null);
+        return true;
+    }
+
+    /**
+     * 실패한 작업을 지수 백오프로 다시 예약한다. 재시도 한도를 넘으면 DEAD(dead-letter)로 옮기고 노트를 FAILED로 표시한다.
+     */
+    @Transactional
+    public void fail(Long jobId, String workerId, String error) {
+        GenerationJob job = jobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (!isOwned(job, workerId)) return;
+        retryOrDeadLetter(job, error);
+    }
+
+    /**
+     * 시도 횟수를 소모하지 않고 작업을 나중으로 미룬다. AI 서버가 일시적으로 호출 불가(서킷 오픈)일 때 사용한다.
+     */
+    @Transactional
+    public void retryLater(Long jobId, String workerId, Duration delay, String reason) {
+        GenerationJob job = jobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (!isOwned(job, workerId)) return;
+        job.setStatus(GenerationJob.Status.PENDING);
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+        job.setAttempts(Math.max(0, job.getAttempts() - 1));
+        job.setLastError(reason);
+        job.setNextRunAt(LocalDateTime.now().plus(delay));
+        noteRepository.updateGenerationStatus(List.of(job.getNoteId()), Note.GenerationStatus.PENDING);
+        eventPublisher.publishEvent(GenerationEvent.status(job.getNoteId(), Note.GenerationStatus.PENDING));
+    }
+
+    /**
+     * 잠금 시간이 지난 RUNNING 작업(죽었거나 멈춘 노드가 잡고 있던 작업)을 실패 한 번으로 처리한다.
+     * 노드를 죽이는 입력(예: 거대한 PDF)은 fail()에 닿지 못하므로, 여기서도 재시도 한도를 넘으면 DEAD로 보낸다.
+     */
+    @Transactional
+    public int releaseStaleJobs() {
+        List<GenerationJob> stale = jobRepository.findStaleForUpdate(
+                GenerationJob.Status.RUNNING,
+                LocalDateTime.now().minus(Duration.ofMillis(lockTimeoutMs)),
+                PageRequest.of(0, STALE_BATCH_SIZE));
+        for (GenerationJob job : stale) {
+            retryOrDeadLetter(job, "Lock expired while held by " + job.getLockedBy());
+        }
+        if (!stale.isEmpty()) {
+            log.warn("Released {} stale generation jobs", stale.size());
+        }
+        return stale.size();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<GenerationStatusDto> getStatus(Long noteId) {
+        return noteRepository.findById(noteId).map(note -> {
+            GenerationStatusDto dto = new GenerationStatusDto();
+            dto.setNoteId(noteId);
+            dto.setStatus(note.getGenerationStatus() != null ? note.getGenerationStatus().name() : null);
+            jobRepository.findFirstByNoteIdOrderByIdDesc(noteId).ifPresent(job -> {
+                dto.setJobType(job.getType().name());
+                dto.setAttempts(job.getAttempts());
+                dto.setMaxAttempts(job.getMaxAttempts());
+                dto.setNextRunAt(job.getStatus() == GenerationJob.Status.PENDING ? job.getNextRunAt() : null);
+                dto.setLastError(job.getLastError());
+                dto.setUpdatedAt(job.getUpdatedAt());
+            });
+            return dto;
+        });
+    }
+
+    @Transactional
+    public void deleteForNote(Long noteId) {
+        jobRepository.deleteByNoteId(noteId);
+    }
+
+    /**
+     * 실패한 작업을 지수 백오프로 다시 예약하거나, 재시도 한도를 넘었으면 DEAD로 옮기고 노트를 FAILED로 표시한다.
+     */
+    private void retryOrDeadLetter(GenerationJob job, String error) {
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+        job.setLastError(error);
+        if (job.getAttempts() >= job.getMaxAttempts()) {
+            job.setStatus(GenerationJob.Status.DEAD);
+            noteRepository.updateGenerationStatus(List.of(job.getNoteId()), Note.GenerationStatus.FAILED);
+            eventPublisher.publishEvent(GenerationEvent.status(job.getNoteId(), Note.GenerationStatus.FAILED));
+            log.warn("Generation job {} for note {} moved to dead-letter after {} attempts: {}",
+                    job.getId(), job.getNoteId(), job.getAttempts(), error);
+        } else {
+            job.setStatus(GenerationJob.Status.PENDING);
+            job.setNextRunAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMillis(job.getAttempts()))));
+            noteRepository.updateGenerationStatus(List.of(job.getNoteId()), Note.GenerationStatus.PENDING);
+            eventPublisher.publishEvent(GenerationEvent.status(job.getNoteId(), Note.GenerationStatus.PENDING));
+            log.info("Generation job {} failed (attempt {}/{}), retrying at {}: {}",
+                    job.getId(), job.getAttempts(), job.getMaxAttempts(), job.getNextRunAt(), error);
+        }
+    }
+
+    private boolean isOwned(GenerationJob job, String workerId) {
+        return job != null
+                && job.getStatus() == GenerationJob.Status.RUNNING
+                && workerId.equals(job.getLockedBy());
+    }
+
+    private long backoffMillis(int attempts) {
+        long exp = backoffBaseMs << Math.min(attempts - 1, 20);
+        long capped = Math.min(exp, backoffMaxMs);
+        // 여러 작업이 같은 시각에 몰리지 않도록 ±20% 지터
+        return (long) (capped * (0.8 + ThreadLocalRandom.current().nextDouble() * 0.4));
+    }
+}
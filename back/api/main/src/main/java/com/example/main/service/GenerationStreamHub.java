@@ -0,0 +1,312 @@
+package com.example.main.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.main.entity.Note;
+import com.example.main.repository.NoteRepository;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 노트별 AI 생성 진행 상황을 SSE 구독자에게 중계한다.
+ * SseEmitter는 비동기 응답이라 연결마다 스레드를 잡지 않는다.
+ *
+ * <p>이벤트를 만드는 쪽(워커, 하트비트)은 소켓에 직접 쓰지 않는다. 채널 잠금 안에서는 상태를 바꾸고
+ * 구독자별 큐에 넣기만 하며, 실제 전송은 구독자마다 가상 스레드 하나가 순서대로 한다.
+ * 그래서 느린 클라이언트가 AI 스트림을 읽는 워커를 막지 않고, 큐가 한도를 넘은 구독자는 끊는다
+ * (클라이언트가 다시 연결하면 snapshot부터 받는다).
+ *
+ * 이벤트: snapshot {status, summary}(구독 직후), status {status}, summary {delta}, quiz {count}, done {status}.
+ * 요약 조각은 이 노드의 워커가 스트리밍할 때만 나오므로, 다른 노드가 처리하는 작업은
+ * 주기적인 DB 상태 확인으로 status/done만 전달된다.
+ */
+@Slf4j
+@Component
+public class GenerationStreamHub {
+    private final NoteRepository noteRepository;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    @Value("${generation.stream.timeout-ms:600000}")
+    private long timeoutMs;
+
+    @Value("${generation.stream.max-queued-events:256}")
+    private int maxQueuedEvents;
+
+    public GenerationStreamHub(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-send-", 0).factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.shutdownNow();
+    }
+
+    private static final class Channel {
+        // 아래 summary/status 변경과 구독자 큐에 넣기는 lock 안에서 (소켓 쓰기는 하지 않는다)
+        final ReentrantLock lock = new ReentrantLock();
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // 지금까지 받은 요약 (늦게 들어온 구독자용)
+        final StringBuilder summary = new StringBuilder();
+        volatile boolean streaming;
+        volatile Note.GenerationStatus status;
+    }
+
+    /**
+     * 구독자 하나의 전송 큐. 넣는 쪽은 막히지 않고, 꺼내 보내는 가상 스레드는 구독자당 최대 하나다.
+     */
+    private final class Subscriber {
+        private static final Object COMPLETE = new Object();
+
+        final SseEmitter emitter;
+        private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void send(String name, Object data) {
+            offer(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        }
+
+        void ping() {
+            offer(SseEmitter.event().comment("ping"));
+        }
+
+        void complete() {
+            offer(COMPLETE);
+        }
+
+        private void offer(Object item) {
+            if (closed) return;
+            if (queued.incrementAndGet() > maxQueuedEvents) {
+                // 따라오지 못하는 구독자: 더 쌓지 않고 끊는다 (완료도 전송 스레드에서)
+                log.info("Dropping slow generation stream subscriber ({} events queued)", maxQueuedEvents);
+                closed = true;
+                queue.clear();
+                sender.execute(emitter::complete);
+                return;
+            }
+            queue.add(item);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Object item;
+                while (!closed && (item = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (item == COMPLETE) {
+                        closed = true;
+                        emitter.complete();
+                        break;
+                    }
+                    try {
+                        emitter.send((SseEmitter.SseEventBuilder) item);
+                    } catch (IOException | IllegalStateException e) {
+                        // 클라이언트가 끊었거나 이미 닫힌 연결: onError/onCompletion에서 정리된다
+                        closed = true;
+                        emitter.completeWithError(e);
+                    }
+                }
+                draining.set(false);
+                // 내려놓은 사이에 들어온 이벤트가 있으면 다시 맡는다
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+
+    /**
+     * 구독을 시작하고 현재 상태와 지금까지의 요약을 snapshot으로 먼저 보낸다.
+     * 이미 끝난 노트면 done을 보내고 바로 닫는다.
+     */
+    public SseEmitter subscribe(Long noteId, Note.GenerationStatus current) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        Channel channel = channels.compute(noteId, (id, ch) -> {
+            Channel c = ch != null ? ch : new Channel();
+            c.subscribers.add(subscriber);
+            return c;
+        });
+        emitter.onCompletion(() -> unsubscribe(noteId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(noteId, emitter));
+
+        channel.lock.lock();
+        try {
+            Note.GenerationStatus status = channel.streaming ? Note.GenerationStatus.RUNNING : current;
+            channel.status = status;
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put("status", status != null ? status.name() : null);
+            snapshot.put("summary", channel.summary.toString());
+            subscriber.send("snapshot", snapshot);
+            if (isTerminal(status)) {
+                subscriber.send("done", Map.of("status", status.name()));
+                subscriber.complete();
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * 이 노드의 워커가 요약 스트리밍을 시작했다. 재시도일 수 있으므로 이전 요약은 버린다.
+     */
+    public void started(Long noteId) {
+        // streaming 표시는 compute 안에서 해야 정리(dropIfIdle)와 겹쳐도 채널이 사라지지 않는다
+        Channel channel = channels.compute(noteId, (id, ch) -> {
+            Channel c = ch != null ? ch : new Channel();
+            c.streaming = true;
+            return c;
+        });
+        channel.lock.lock();
+        try {
+            channel.summary.setLength(0);
+            channel.status = Note.GenerationStatus.RUNNING;
+            broadcast(channel, "status", Map.of("status", Note.GenerationStatus.RUNNING.name()));
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    public void summaryDelta(Long noteId, String delta) {
+        Channel channel = channels.get(noteId);
+        if (channel == null || delta == null || delta.isEmpty()) return;
+        channel.lock.lock();
+        try {
+            channel.summary.append(delta);
+            broadcast(channel, "summary", Map.of("delta", delta));
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    /**
+     * 결과(퀴즈 포함)가 커밋된 뒤에 구독자에게 알린다. 끝난 상태면 스트림을 닫는다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGenerationEvent(GenerationEvent event) {
+        Channel channel = channels.get(event.noteId());
+        if (channel == null) return;
+        channel.lock.lock();
+        try {
+            channel.streaming = false;
+            channel.summary.setLength(0);
+            channel.status = event.status();
+            if (event.status() == Note.GenerationStatus.DONE) {
+                broadcast(channel, "quiz", Map.of("count", event.quizCount()));
+            }
+            finish(channel, event.status());
+        } finally {
+            channel.lock.unlock();
+        }
+        dropIfIdle(event.noteId());
+    }
+
+    /**
+     * 연결 유지용 ping을 보내고(끊긴 연결 정리), 다른 노드가 처리한 작업의 상태 변화를 DB에서 확인해 전달한다.
+     */
+    @Scheduled(fixedDelayString = "${generation.stream.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (channels.isEmpty()) return;
+        Map<Long, Note.GenerationStatus> statuses = new HashMap<>();
+        try {
+            for (Object[] row : noteRepository.findGenerationStatuses(List.copyOf(channels.keySet()))) {
+                statuses.put((Long) row[0], (Note.GenerationStatus) row[1]);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read generation statuses for streams: {}", e.getMessage());
+            return;
+        }
+        channels.forEach((noteId, channel) -> {
+            Note.GenerationStatus status = statuses.get(noteId);
+            channel.lock.lock();
+            try {
+                if (!statuses.containsKey(noteId)) {
+                    // 노트가 삭제됨
+                    channel.streaming = false;
+                    finish(channel, Note.GenerationStatus.FAILED);
+                } else if (status == null) {
+                    // 생성 작업이 없는 예전 노트
+                    finish(channel, Note.GenerationStatus.DONE);
+                } else if (isTerminal(status)) {
+                    channel.streaming = false;
+                    channel.summary.setLength(0);
+                    finish(channel, status);
+                } else if (status != channel.status && !channel.streaming) {
+                    channel.status = status;
+                    broadcast(channel, "status", Map.of("status", status.name()));
+                } else {
+                    channel.subscribers.forEach(Subscriber::ping);
+                }
+            } finally {
+                channel.lock.unlock();
+            }
+            dropIfIdle(noteId);
+        });
+    }
+
+    int subscriberCount(Long noteId) {
+        Channel channel = channels.get(noteId);
+        return channel != null ? channel.subscribers.size() : 0;
+    }
+
+    private void finish(Channel channel, Note.GenerationStatus status) {
+        if (isTerminal(status)) {
+            broadcast(channel, "done", Map.of("status", status.name()));
+            channel.subscribers.forEach(Subscriber::complete);
+            channel.subscribers.clear();
+        } else {
+            // 재시도 대기(PENDING) 등: 연결은 유지
+            broadcast(channel, "status", Map.of("status", status.name()));
+        }
+    }
+
+    private void unsubscribe(Long noteId, SseEmitter emitter) {
+        Channel channel = channels.get(noteId);
+        if (channel == null) return;
+        channel.subscribers.removeIf(s -> s.emitter == emitter);
+        dropIfIdle(noteId);
+    }
+
+    private void dropIfIdle(Long noteId) {
+        // 구독자가 없어도 스트리밍 중이면 늦게 들어올 구독자를 위해 요약을 남겨 둔다
+        channels.computeIfPresent(noteId, (id, ch) -> ch.subscribers.isEmpty() && !ch.streaming ? null : ch);
+    }
+
+    private static void broadcast(Channel channel, String name, Object data) {
+        for (Subscriber subscriber : channel.subscribers) {
+            subscriber.send(name, data);
+        }
+    }
+
+    private static boolean isTerminal(Note.GenerationStatus status) {
+        return status == Note.GenerationStatus.DONE || status == Note.GenerationStatus.FAILED;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.main.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.main.client.AiClient;
+import com.example.main.client.AiUnavailableException;
+import com.example.main.dto.AiGenerateResponse;
+import com.example.main.dto.GenerationInput;
+import com.example.main.entity.GenerationJob;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * generation_jobs 테이블을 주기적으로 폴링해 AI 서버 호출을 요청 스레드 밖에서 처리한다.
+ * 각 API 노드가 하나씩 띄우며, 작업 분배는 {@link GenerationJobService#claim}의 SKIP LOCKED에 맡긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GenerationWorker {
+    private final GenerationJobService generationJobService;
+    private final NoteService noteService;
+    private final AiClient aiClient;
+    private final AiResultCache aiResultCache;
+    private final GenerationStreamHub streamHub;
+
+    @Value("${generation.worker.threads:4}")
+    private int threads;
+
+    // AI 서버의 /generate/stream으로 요약을 받아 SSE 구독자에게 바로 중계
+    @Value("${generation.stream.enabled:true}")
+    private boolean streamEnabled;
+
+    @Value("${generation.worker.node-id:}")
+    private String nodeId;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private ExecutorService executor;
+    private String workerId;
+
+    @PostConstruct
+    void start() {
+        workerId = resolveWorkerId();
+        // 작업 시간 대부분이 AI 응답/JDBC 대기이므로 작업마다 가상 스레드를 쓴다.
+        // 실제 AI 동시 호출 수는 AiClient의 리미터가 정하고, threads는 노드당 동시 처리 작업 상한이다.
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("generation-worker-", 0).factory());
+        log.info("Generation worker {} started (max {} concurrent jobs)", workerId, threads);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        // 처리 중이던 작업은 잠금 시간이 지나면 다른 노드가 다시 가져간다
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${generation.worker.poll-interval-ms:2000}")
+    public void poll() {
+        // 리미터가 허용하는 만큼만 가져가고, 서킷이 열려 있으면 다른 노드/다음 폴링에 맡긴다 (백프레셔)
+        int free = Math.min(threads - inFlight.get(), aiClient.availablePermits());
+        if (free <= 0 || !aiClient.isAvailable()) return;
+        List<GenerationJob> jobs;
+        try {
+            jobs = generationJobService.claim(workerId, free);
+        } catch (Exception e) {
+            log.warn("Failed to claim generation jobs: {}", e.getMessage());
+            return;
+        }
+        for (GenerationJob job : jobs) {
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${generation.worker.reaper-interval-ms:60000}")
+    public void releaseStaleJobs() {
+        generationJobService.releaseStaleJobs();
+    }
+
+    void process(GenerationJob job) {
+        try {
+            GenerationInput input = noteService.getGenerationInput(job.getNoteId());
+            // 같은 자료(텍스트 + 미디어 해시)로 만든 결과가 있으면 AI 서버를 호출하지 않는다
+            String cacheKey = aiResultCache.keyOf(job.getType(), input);
+            AiGenerateResponse res = job.isBypassCache() ? null : aiResultCache.get(cacheKey);
+            boolean cached = res != null;
+            if (job.getType() == GenerationJob.Type.NOTE) {
+                if (res == null) res = generateNote(input);
+                if (res.content() == null) {
+                    throw new IllegalStateException("AI response has no content");
+                }
+                noteService.applyGeneratedNote(job.getId(), workerId, input.noteId(), res.content(), res.quizOrEmpty());
+            } else {
+                if (res == null) res = aiClient.generateQuiz(input);
+                noteService.applyGeneratedQuiz(job.getId(), workerId, input.noteId(), res.quizOrEmpty());
+            }
+            if (!cached) aiResultCache.put(cacheKey, job.getType(), res);
+        } catch (AiUnavailableException e) {
+            generationJobService.retryLater(job.getId(), workerId, e.getRetryAfter(), e.getMessage());
+        } catch (Exception e) {
+            log.warn("Generation job {} (note {}) failed: {}", job.getId(), job.getNoteId(), e.toString());
+            generationJobService.fail(job.getId(), workerId, e.toString());
+        }
+    }
+
+    private AiGenerateResponse generateNote(GenerationInput input) {
+        if (!streamEnabled) return aiClient.generate(input);
+        streamHub.started(input.noteId());
+        return aiClient.generateStream(input, delta -> streamHub.summaryDelta(input.noteId(), delta));
+    }
+
+    private String resolveWorkerId() {
+        if (nodeId != null && !nodeId.isBlank()) return nodeId;
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.main.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.main.dto.ImageVariants;
+import com.example.main.dto.StoredFile;
+import com.example.main.util.ExifOrientation;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드 이미지의 파생 이미지(썸네일/화면 표시용/AI 입력용)를 만든다.
+ * 원본은 서브샘플링으로 필요한 해상도까지만 디코딩하고, 결과는 uploads/derived/{sha256}/ 아래에
+ * JPEG로 저장된다. 내용 해시가 키이므로 같은 이미지는 한 번만 처리된다.
+ * (JDK ImageIO에는 WebP 인코더가 없어 JPEG만 만든다.)
+ * 파생 이미지가 있는 blob은 메모리에 기록해 두어 목록 응답이 노트마다 디스크를 확인하지 않게 한다.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+    public static final String DERIVED_DIR = "derived";
+    private static final String THUMB = "thumb.jpg";
+    private static final String DISPLAY = "display.jpg";
+    private static final String AI = "ai.jpg";
+
+    private final UploadService uploadService;
+    private final ExecutorService pool;
+    // sha256 → 파생 이미지가 모두 있는지. 다른 노드의 생성/정리는 TTL 안에 반영된다
+    private final Cache<String, Boolean> derived;
+
+    @Value("${image.thumb-max-edge:320}")
+    private int thumbMaxEdge;
+
+    @Value("${image.display-max-edge:1280}")
+    private int displayMaxEdge;
+
+    @Value("${image.ai-max-edge:1568}")
+    private int aiMaxEdge;
+
+    @Value("${image.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${image.max-decoded-pixels:40000000}")
+    private long maxDecodedPixels;
+
+    @Value("${image.timeout-ms:30000}")
+    private long timeoutMs;
+
+    public ImageDerivativeService(UploadService uploadService,
+                                  @Value("${image.threads:2}") int threads,
+                                  @Value("${image.derived-cache.max-size:10000}") long derivedCacheSize,
+                                  @Value("${image.derived-cache.ttl-seconds:600}") long derivedCacheTtlSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.uploadService = uploadService;
+        this.derived = Caffeine.newBuilder()
+                .maximumSize(derivedCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(derivedCacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, derived, "image.derived");
+        AtomicInteger seq = new AtomicInteger();
+        // 디코딩 버퍼가 커서 동시 처리 수를 제한한다
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "image-derive-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 업로드된 이미지들의 파생 이미지를 병렬로 만든다. 결과 순서는 입력과 같다.
+     * 실패하거나 시간 안에 끝나지 않은 이미지는 원본 URL로 대체한다.
+     */
+    public List<ImageVariants> generateAll(List<StoredFile> images) {
+        List<Future<ImageVariants>> futures = new ArrayList<>(images.size());
+        for (StoredFile image : images) {
+            futures.add(pool.submit(() -> generate(image)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<ImageVariants> result = new ArrayList<>(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            String url = images.get(i).url();
+            try {
+                result.add(futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.add(ImageVariants.originalOnly(url));
+            } catch (Exception e) {
+                log.warn("Image derivatives failed for {}: {}", url, e.toString());
+                result.add(ImageVariants.originalOnly(url));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * AI 입력용 이미지 URL. 파생 이미지가 없으면(예전 업로드 등) 원본.
+     */
+    public String aiInputUrl(String url) {
+        StoredFile blob = blobOf(url);
+        if (blob == null) return url;
+        return hasVariants(blob.sha256()) ? derivedUrl(blob.sha256(), AI) : url;
+    }
+
+    /**
+     * 목록 카드용 썸네일 URL. 파생 이미지가 없으면 원본.
+     */
+    public String thumbnailUrl(String url) {
+        StoredFile blob = blobOf(url);
+        if (blob == null) return url;
+        return hasVariants(blob.sha256()) ? derivedUrl(blob.sha256(), THUMB) : url;
+    }
+
+    ImageVariants generate(StoredFile image) throws IOException {
+        String sha256 = image.sha256();
+        Path dir = derivedDir(sha256);
+        if (Files.exists(dir.resolve(THUMB)) && Files.exists(dir.resolve(DISPLAY)) && Files.exists(dir.resolve(AI))) {
+            derived.put(sha256, true);
+            return variantsOf(image.url(), sha256);
+        }
+        Path source = uploadService.resolve(image.url());
+        if (source == null) throw new IOException("Not an upload: " + image.url());
+
+        BufferedImage decoded = decode(source, Math.max(displayMaxEdge, aiMaxEdge));
+        if (isJpeg(source)) {
+            decoded = applyOrientation(decoded, ExifOrientation.read(source));
+        }
+        BufferedImage ai = scaleToFit(decoded, aiMaxEdge);
+        BufferedImage display = scaleToFit(decoded, displayMaxEdge);
+        BufferedImage thumb = scaleToFit(display.getWidth() <= ai.getWidth() ? display : ai, thumbMaxEdge);
+
+        Files.createDirectories(dir);
+        writeJpeg(ai, dir.resolve(AI));
+        writeJpeg(display, dir.resolve(DISPLAY));
+        writeJpeg(thumb, dir.resolve(THUMB));
+        derived.put(sha256, true);
+        return variantsOf(image.url(), sha256);
+    }
+
+    // 썸네일을 마지막에 쓰므로 썸네일이 있으면 세 파생 이미지가 모두 있다. 캐시에 없을 때만 디스크를 본다
+    private boolean hasVariants(String sha256) {
+        return derived.get(sha256, key -> Files.exists(derivedDir(key).resolve(THUMB)));
+    }
+
+    /**
+     * 긴 변이 {@code targetEdge} 이상으로 남는 가장 큰 정수 배율로 서브샘플링하며 디코딩한다.
+     * 4000x3000 사진을 1568px 대상으로 읽으면 1/2 크기로 디코딩되어 메모리와 시간이 1/4로 준다.
+     */
+    private BufferedImage decode(Path source, int targetEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) throw new IOException("Cannot open " + source);
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("Unsupported image format: " + source.getFileName());
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int subsampling = Math.max(1, Math.max(width, height) / targetEdge);
+                long decodedPixels = ((long) width / subsampling) * ((long) height / subsampling);
+                if (decodedPixels > maxDecodedPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    int getAiMaxEdge() {
+        return aiMaxEdge;
+    }
+
+    static BufferedImage scaleToFit(BufferedImage src, int maxEdge) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        if (Math.max(width, height) <= maxEdge && src.getType() == BufferedImage.TYPE_INT_RGB) return src;
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetW = Math.max(1, (int) Math.round(width * scale));
+        int targetH = Math.max(1, (int) Math.round(height * scale));
+        BufferedImage current = src;
+        // 한 번에 크게 줄이면 bilinear가 앨리어싱을 남기므로 절반씩 단계적으로 줄인다
+        while (current.getWidth() / 2 >= targetW && current.getHeight() / 2 >= targetH) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, targetW, targetH);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int width, int height) {
+        BufferedImage dst = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // 투명 PNG는 흰 배경 위에 (JPEG에는 알파가 없음)
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(src, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return dst;
+    }
+
+    static BufferedImage applyOrientation(BufferedImage src, int orientation) {
+        if (orientation <= 1 || orientation > 8) return src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(Math.PI / 2); t.scale(1, -1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.scale(-1, 1); t.translate(-h, 0); t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+            case 8 -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+            default -> { }
+        }
+        BufferedImage dst = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.drawImage(src, t, null);
+        } finally {
+            g.dispose();
+        }
+        return dst;
+    }
+
+    void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+                writer.setOutput(out);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    Path derivedDir(String sha256) {
+        return uploadService.getRoot().resolve(DERIVED_DIR).resolve(sha256);
+    }
+
+    private static String derivedUrl(String sha256, String name) {
+        return "/uploads/" + DERIVED_DIR + "/" + sha256 + "/" + name;
+    }
+
+    private static ImageVariants variantsOf(String url, String sha256) {
+        return new ImageVariants(url, derivedUrl(sha256, THUMB), derivedUrl(sha256, DISPLAY), derivedUrl(sha256, AI));
+    }
+
+    private static StoredFile blobOf(String url) {
+        String sha256 = FileBlobService.hashOf(url);
+        return sha256 != null ? new StoredFile(url, sha256, -1, null) : null;
+    }
+
+    private static boolean isJpeg(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpg") || name.endsWith(".jpeg");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.main.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.main.dto.FacetValueDto;
+import com.example.main.dto.FacetsDto;
+import com.example.main.search.NoteFacetIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 공개 노트의 과목명/학기/키워드 패싯. 집계는 NoteFacetIndex가 노트 변경 이벤트로 증분 유지하므로 DB를 읽지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class NoteFacetService {
+    private final NoteFacetIndex facetIndex;
+
+    @Value("${facets.max-limit:50}")
+    private int maxLimit;
+
+    public FacetsDto getFacets(int limit, LocalDateTime now) {
+        int n = Math.max(1, Math.min(limit, maxLimit));
+        FacetsDto dto = new FacetsDto();
+        dto.setTitles(toDtos(facetIndex.top(NoteFacetIndex.Facet.TITLE, n, now)));
+        dto.setCategories(toDtos(facetIndex.top(NoteFacetIndex.Facet.CATEGORY, n, now)));
+        dto.setKeywords(toDtos(facetIndex.top(NoteFacetIndex.Facet.KEYWORD, n, now)));
+        dto.setTrendingKeywords(toDtos(facetIndex.trending(NoteFacetIndex.Facet.KEYWORD, n, now)));
+        dto.setTrendingTitles(toDtos(facetIndex.trending(NoteFacetIndex.Facet.TITLE, n, now)));
+        return dto;
+    }
+
+    private static List<FacetValueDto> toDtos(List<NoteFacetIndex.FacetCount> counts) {
+        return counts.stream()
+                .map(c -> {
+                    FacetValueDto dto = new FacetValueDto();
+                    dto.setValue(c.value());
+                    dto.setCount(c.count());
+                    dto.setScore(c.score());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -1,58 +1,166 @@
 package com.example.main.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.main.dto.AiQuiz;
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.GenerationInput;
 import com.example.main.dto.NoteDto;
+import com.example.main.dto.NoteListVersion;
+import com.example.main.dto.NoteSummary;
+import com.example.main.dto.SearchPage;
+import com.example.main.entity.GenerationJob;
 import com.example.main.entity.Note;
-import com.example.main.entity.Quiz;
+import com.example.main.entity.NoteKeyword;
+import com.example.main.entity.ReviewEvent;
 import com.example.main.entity.User;
+import com.example.main.repository.NoteKeywordRepository;
 import com.example.main.repository.NoteRepository;
-import com.example.main.repository.QuizRepository;
+import com.example.main.repository.ReviewEventRepository;
 import com.example.main.repository.UserRepository;
+import com.example.main.search.NoteIndexEvent;
+import com.example.main.search.NoteSearchDocument;
+import com.example.main.search.NoteSearchIndex;
+import com.example.main.search.SearchHits;
+import com.example.main.util.NoteCursor;
 
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.springframework.beans.factory.annotation.Value;
-
-import java.io.File;
 
 @Service
 @RequiredArgsConstructor
 public class NoteService {
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_DEPTH = 1000;
+    private static final int REVIEW_HISTORY_LIMIT = 30;
+
     private final NoteRepository noteRepository;
+    private final NoteKeywordRepository noteKeywordRepository;
     private final UserRepository userRepository;
-    private final QuizRepository quizRepository;
-
-    @Value("${ai.url}")
-    private String aiUrl;
+    private final ReviewEventRepository reviewEventRepository;
+    private final QuizService quizService;
+    private final GenerationJobService generationJobService;
+    private final NoteSearchIndex searchIndex;
+    private final UploadService uploadService;
+    private final FileBlobService fileBlobService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final UserStatsService userStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<NoteDto> getNotesByUser(Long userId) {
-        return noteRepository.findByUserId(userId).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    /**
+     * 내 노트 목록. 카드에 필요한 요약만 읽는다 (본문/복습 히스토리는 상세 조회에서).
+     */
+    @Transactional(readOnly = true)
+    public List<NoteSummary> getNotesByUser(Long userId) {
+        return withThumbnails(noteRepository.findSummariesByUserId(userId));
     }
 
+    @Transactional(readOnly = true)
     public Optional<NoteDto> getNote(Long noteId) {
         return noteRepository.findById(noteId).map(this::toDto);
     }
 
-    public List<NoteDto> getPublicNotes() {
-        return noteRepository.findByIsPublicTrue().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    /**
+     * 조건부 GET용 버전들. 노트 응답에 보이는 값(복습 기록, 생성 상태 포함)이 바뀌면 updatedAt이 함께 바뀐다.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getNoteVersion(Long noteId) {
+        return noteRepository.findUpdatedAtById(noteId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> getQuizVersion(Long noteId) {
+        return noteRepository.findQuizVersionById(noteId);
+    }
+
+    @Transactional(readOnly = true)
+    public NoteListVersion getUserNotesVersion(Long userId) {
+        return noteRepository.findListVersionByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public NoteListVersion getPublicNotesVersion() {
+        return noteRepository.findPublicListVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public List<NoteSummary> getPublicNotes() {
+        return withThumbnails(noteRepository.findPublicSummaries());
+    }
+
+    /**
+     * 공개 노트 피드. (created_at, id) 키셋 커서로 페이지당 비용이 일정하다.
+     * 목록 화면용이라 요약(NoteSummary)만 읽는다.
+     *
+     * @throws IllegalArgumentException 커서 형식이 잘못된 경우
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NoteSummary> getPublicFeed(String cursor, int size, String title, String category, String keyword) {
+        NoteCursor after = hasText(cursor) ? NoteCursor.decode(cursor) : null;
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // 한 개 더 읽어서 다음 페이지 존재 여부 판단
+        List<Long> ids = noteRepository.findPublicFeedIds(
+                hasText(title) ? title : null,
+                hasText(category) ? category : null,
+                hasText(keyword) ? keyword : null,
+                after, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        if (hasNext) ids = ids.subList(0, pageSize);
+        if (ids.isEmpty()) return new CursorPage<>(List.of(), null);
+
+        Map<Long, NoteSummary> byId = noteRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(NoteSummary::getId, n -> n));
+        List<NoteSummary> items = withThumbnails(ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        String nextCursor = null;
+        if (hasNext) {
+            NoteSummary last = byId.get(ids.get(ids.size() - 1));
+            nextCursor = new NoteCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * 메모리 내 역색인으로 검색한다. 공개 노트와 본인 노트만 결과에 포함된다.
+     * 색인은 커밋 후 비동기로 따라오므로, 요약은 DB에서 다시 읽고 공개 여부도 한 번 더 확인한다.
+     */
+    @Transactional(readOnly = true)
+    public SearchPage<NoteSummary> search(String query, Long viewerId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+        if (!hasText(query) || offset >= MAX_SEARCH_DEPTH) {
+            return new SearchPage<>(List.of(), 0, page, pageSize);
+        }
+        SearchHits hits = searchIndex.search(query, viewerId, offset, pageSize);
+        if (hits.noteIds().isEmpty()) {
+            return new SearchPage<>(List.of(), hits.total(), page, pageSize);
+        }
+        Map<Long, NoteSummary> byId = noteRepository.findSummariesByIdIn(hits.noteIds()).stream()
+                .collect(Collectors.toMap(NoteSummary::getId, n -> n));
+        List<NoteSummary> items = withThumbnails(hits.noteIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .filter(n -> n.isPublic() || n.getUserId().equals(viewerId))
+                .collect(Collectors.toList()));
+        return new SearchPage<>(items, hits.total(), page, pageSize);
     }
 
     @Transactional
@@ -67,108 +175,69 @@ public class NoteService {
                 .imageUrls(imageUrls)
                 .pdfUrl(pdfUrl)
                 .isPublic(isPublic)
+                .generationStatus(Note.GenerationStatus.PENDING)
                 .build();
         noteRepository.save(note);
+        indexKeywords(note.getId(), keywords);
+        fileBlobService.acquire(mediaUrlsOf(note));
+        userStatsService.noteCreated(userId, category, note.getCreatedAt());
 
-        // AI 서버에 요청
-        try {
-            RestTemplate restTemplate = new RestTemplate();
-            String aiUrl = this.aiUrl + "/generate";
-            Map<String, Object> req = new HashMap<>();
-            req.put("noteId", note.getId());
-            req.put("title", title);
-            req.put("keywords", keywords);
-            req.put("description", description);
-            req.put("imageUrls", imageUrls);
-            req.put("pdfUrl", pdfUrl);
-
-            System.out.println("Image URLs: " + imageUrls);
-            System.out.println("PDF URL: " + pdfUrl);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(req, headers);
-
-            ResponseEntity<Map> aiRes = restTemplate.postForEntity(aiUrl, entity, Map.class);
-
-            // content, quiz 파싱
-            if (aiRes.getStatusCode().is2xxSuccessful() && aiRes.getBody() != null) {
-                Object contentObj = aiRes.getBody().get("content");
-                if (contentObj instanceof String) {
-                    note.setContent((String) contentObj);
-                    noteRepository.save(note);
-                }
-                Object quizObj = aiRes.getBody().get("quiz");
-                if (quizObj instanceof java.util.List) {
-                    java.util.List quizList = (java.util.List) quizObj;
-                    for (Object q : quizList) {
-                        if (q instanceof Map) {
-                            Map qMap = (Map) q;
-                            Quiz quiz = Quiz.builder()
-                                .note(note)
-                                .question((String) qMap.get("question"))
-                                .options((java.util.List<String>) qMap.get("options"))
-                                .answerIndex((Integer) qMap.get("answerIndex"))
-                                .explanation((String) qMap.get("explanation"))
-                                .build();
-                            quizRepository.save(quiz);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // AI 서버 실패 시 무시(노트만 저장)
-            e.printStackTrace();
-        }
+        // AI 요약/퀴즈 생성은 작업 큐에 넣고 바로 응답 (GenerationWorker가 처리)
+        generationJobService.enqueue(note.getId(), GenerationJob.Type.NOTE);
+        publishIndex(note);
 
         return toDto(note);
     }
 
-    @Transactional
-    public NoteDto addReview(Long noteId) {
-        Note note = noteRepository.findById(noteId).orElseThrow();
-        note.getReviewHistory().add(LocalDateTime.now());
-        noteRepository.save(note);
-        return toDto(note);
-    }
-
+    /**
+     * 오늘 복습 완료로 표시한다. 복습 기록은 review_events에 한 줄 추가되며, 같은 날 다시 눌러도 한 번만 남는다.
+     */
     @Transactional
     public NoteDto updateReviewTimestamp(Long noteId) {
         Note note = noteRepository.findById(noteId).orElseThrow();
-        note.getReviewHistory().clear();
-        note.getReviewHistory().add(LocalDateTime.now());
-        note.setLastReviewedDate(LocalDate.now());
+        LocalDate previous = note.getLastReviewedDate();
+        LocalDateTime now = LocalDateTime.now();
+        note.setLastReviewedDate(now.toLocalDate());
         noteRepository.save(note);
+        if (!now.toLocalDate().equals(previous)) {
+            appendReviewEvent(note, ReviewEvent.Type.REVIEWED, now.toLocalDate(), now);
+            userStatsService.noteReviewed(note.getUser().getId(), previous, now.toLocalDate());
+        }
         return toDto(note);
     }
 
     @Transactional
     public NoteDto unreviewNote(Long noteId) {
         Note note = noteRepository.findById(noteId).orElseThrow();
+        LocalDate previous = note.getLastReviewedDate();
         note.setLastReviewedDate(null);
         noteRepository.save(note);
+        if (previous != null) {
+            appendReviewEvent(note, ReviewEvent.Type.UNREVIEWED, previous, LocalDateTime.now());
+            userStatsService.noteUnreviewed(note.getUser().getId(), previous);
+        }
         return toDto(note);
     }
 
     @Transactional
     public void deleteNote(Long noteId) {
         Note note = noteRepository.findById(noteId).orElseThrow();
-        // 파일 삭제
-        if (note.getImageUrls() != null) {
-            for (String url : note.getImageUrls()) {
-                if (url != null && url.startsWith("/uploads/")) {
-                    File file = new File("." + url);
-                    if (file.exists()) file.delete();
-                }
-            }
-        }
-        if (note.getPdfUrl() != null && note.getPdfUrl().startsWith("/uploads/")) {
-            File file = new File("." + note.getPdfUrl());
-            if (file.exists()) file.delete();
-        }
+        List<String> mediaUrls = mediaUrlsOf(note);
         // DB 삭제
-        quizRepository.deleteByNoteId(noteId);
+        generationJobService.deleteForNote(noteId);
+        quizService.deleteByNoteId(noteId);
+        noteKeywordRepository.deleteByNoteId(noteId);
         noteRepository.deleteById(noteId);
+        userStatsService.noteDeleted(note.getUser().getId(), note.getCategory(), note.getCreatedAt());
+        // 업로드 blob은 참조 수만 내리고, 예전 UUID 파일은 커밋 후에 지운다
+        fileBlobService.release(mediaUrls);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mediaUrls.forEach(uploadService::deleteLegacy);
+            }
+        });
+        eventPublisher.publishEvent(NoteIndexEvent.delete(noteId));
     }
 
     @Transactional
@@ -179,72 +248,178 @@ public class NoteService {
         if (dto.getTitle() != null) {
             note.setTitle(dto.getTitle());
         }
-        if (dto.getCategory() != null) {
+        if (dto.getCategory() != null && !dto.getCategory().equals(note.getCategory())) {
+            String previousCategory = note.getCategory();
             note.setCategory(dto.getCategory());
+            userStatsService.categoryChanged(note.getUser().getId(), previousCategory, dto.getCategory());
         }
         if (dto.getDescription() != null) {
             note.setDescription(dto.getDescription());
         }
-        if (dto.getKeywords() != null) {
+        if (dto.getKeywords() != null && !dto.getKeywords().equals(note.getKeywords())) {
             note.setKeywords(dto.getKeywords());
+            noteKeywordRepository.deleteByNoteId(noteId);
+            indexKeywords(noteId, dto.getKeywords());
         }
         if (dto.getContent() != null) {
             note.setContent(dto.getContent());
         }
-        System.out.println((dto.isPublic()));
+        if (dto.isPublic() && !note.isPublic()) {
+            note.setPublishedAt(LocalDateTime.now()); // 비공개 → 공개 전환 시각
+        }
         note.setPublic(dto.isPublic());
-        noteRepository.save(note);
+        noteRepository.saveAndFlush(note); // updatedAt 갱신 후 색인
+        publishIndex(note);
         return toDto(note);
     }
 
+    /**
+     * @param fresh true면 같은 자료로 캐시된 퀴즈가 있어도 AI로 새로 만든다
+     */
     @Transactional
-    public NoteDto retryQuizGeneration(Long noteId) {
+    public NoteDto retryQuizGeneration(Long noteId, boolean fresh) {
         Note note = noteRepository.findById(noteId).orElseThrow();
-        // AI 서버에 퀴즈 생성 요청
-        try {
-            RestTemplate restTemplate = new RestTemplate();
-            String aiQuizUrl = this.aiUrl + "/api/ai/quiz/generate";
-            Map<String, Object> req = new HashMap<>();
-            req.put("note_text", note.getContent() != null ? note.getContent() : note.getDescription());
-            req.put("imageUrls", note.getImageUrls());
-            req.put("pdfUrl", note.getPdfUrl());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(req, headers);
-
-            ResponseEntity<Map> aiRes = restTemplate.postForEntity(aiQuizUrl, entity, Map.class);
-
-            // 기존 퀴즈 삭제
-            quizRepository.deleteByNoteId(noteId);
-
-            // 새 퀴즈 저장
-            if (aiRes.getStatusCode().is2xxSuccessful() && aiRes.getBody() != null) {
-                Object quizObj = aiRes.getBody().get("quiz");
-                if (quizObj instanceof java.util.List) {
-                    java.util.List quizList = (java.util.List) quizObj;
-                    for (Object q : quizList) {
-                        if (q instanceof Map) {
-                            Map qMap = (Map) q;
-                            Quiz quiz = Quiz.builder()
-                                .note(note)
-                                .question((String) qMap.get("question"))
-                                .options((java.util.List<String>) qMap.get("options"))
-                                .answerIndex((Integer) qMap.get("answerIndex"))
-                                .explanation((String) qMap.get("explanation"))
-                                .build();
-                            quizRepository.save(quiz);
-                        }
-                    }
-                }
+        // 퀴즈 재생성도 같은 작업 큐로 처리
+        generationJobService.enqueue(noteId, GenerationJob.Type.QUIZ, fresh);
+        note.setGenerationStatus(Note.GenerationStatus.PENDING);
+        return toDto(note);
+    }
+
+    @Transactional(readOnly = true)
+    public GenerationInput getGenerationInput(Long noteId) {
+        Note note = noteRepository.findById(noteId).orElseThrow();
+        return new GenerationInput(
+                note.getId(),
+                note.getTitle(),
+                copyOf(note.getKeywords()),
+                note.getDescription(),
+                note.getContent(),
+                // 원본 대신 AI 입력 크기로 줄인 파생 이미지를 보낸다
+                copyOf(note.getImageUrls()).stream().map(imageDerivativeService::aiInputUrl).collect(Collectors.toList()),
+                note.getPdfUrl());
+    }
+
+    /**
+     * /generate 결과(요약 + 퀴즈)를 반영하고 작업을 완료 처리한다.
+     * 작업 소유권을 잃었으면(다른 노드가 재시도 중) 아무것도 하지 않는다.
+     */
+    @Transactional
+    public boolean applyGeneratedNote(Long jobId, String workerId, Long noteId, String content, List<AiQuiz> quizzes) {
+        if (!generationJobService.completeIfOwned(jobId, workerId)) return false;
+        Note note = noteRepository.findById(noteId).orElseThrow();
+        note.setContent(content);
+        note.setGenerationStatus(Note.GenerationStatus.DONE);
+        replaceQuizzes(note, quizzes);
+        noteRepository.flush();
+        publishIndex(note);
+        eventPublisher.publishEvent(GenerationEvent.done(noteId, quizzes.size()));
+        return true;
+    }
+
+    /**
+     * 퀴즈 재생성 결과를 반영하고 작업을 완료 처리한다.
+     */
+    @Transactional
+    public boolean applyGeneratedQuiz(Long jobId, String workerId, Long noteId, List<AiQuiz> quizzes) {
+        if (!generationJobService.completeIfOwned(jobId, workerId)) return false;
+        Note note = noteRepository.findById(noteId).orElseThrow();
+        note.setGenerationStatus(Note.GenerationStatus.DONE);
+        replaceQuizzes(note, quizzes);
+        eventPublisher.publishEvent(GenerationEvent.done(noteId, quizzes.size()));
+        return true;
+    }
+
+    private static List<String> mediaUrlsOf(Note note) {
+        List<String> urls = new ArrayList<>();
+        if (note.getImageUrls() != null) urls.addAll(note.getImageUrls());
+        if (note.getPdfUrl() != null) urls.add(note.getPdfUrl());
+        return urls;
+    }
+
+    private List<NoteSummary> withThumbnails(List<NoteSummary> summaries) {
+        for (NoteSummary summary : summaries) {
+            if (summary.getThumbnailUrl() != null) {
+                summary.setThumbnailUrl(imageDerivativeService.thumbnailUrl(summary.getThumbnailUrl()));
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-        return toDto(note);
+        return summaries;
+    }
+
+    private static List<String> copyOf(List<String> list) {
+        return list != null ? new ArrayList<>(list) : new ArrayList<>();
+    }
+
+    private void replaceQuizzes(Note note, List<AiQuiz> quizzes) {
+        // 재시도로 같은 작업이 두 번 반영돼도 퀴즈가 중복되지 않도록 항상 교체
+        quizService.deleteByNoteId(note.getId());
+        quizService.saveQuizzes(note, quizzes);
+        note.setQuizVersion(note.getQuizVersion() + 1);
+    }
+
+    private void publishIndex(Note note) {
+        // 커밋된 뒤에 NoteSearchIndex가 반영 (롤백되면 무시)
+        eventPublisher.publishEvent(NoteIndexEvent.upsert(NoteSearchDocument.of(note)));
+    }
+
+    /**
+     * 키워드 검색 색인 행을 넣는다. 같은 키워드는 한 번만.
+     */
+    private void indexKeywords(Long noteId, List<String> keywords) {
+        if (keywords == null) return;
+        noteKeywordRepository.saveAll(keywords.stream()
+                .filter(NoteService::hasText)
+                .distinct()
+                .map(keyword -> NoteKeyword.builder().noteId(noteId).keyword(keyword).build())
+                .collect(Collectors.toList()));
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private void appendReviewEvent(Note note, ReviewEvent.Type type, LocalDate reviewDay, LocalDateTime occurredAt) {
+        reviewEventRepository.save(ReviewEvent.builder()
+                .userId(note.getUser().getId())
+                .noteId(note.getId())
+                .type(type)
+                .reviewDay(reviewDay)
+                .occurredAt(occurredAt)
+                .build());
+    }
+
+    /**
+     * 업로드 시점 + 최근 복습 시각(최대 {@link #REVIEW_HISTORY_LIMIT}개, 오래된 순).
+     * 취소(UNREVIEWED)된 복습은 같은 reviewDay의 REVIEWED와 상쇄해 뺀다 (UserStatsService.rebuild와 같은 규칙).
+     */
+    private List<LocalDateTime> reviewHistoryOf(Note note) {
+        List<LocalDateTime> reviews = new ArrayList<>();
+        // 취소는 항상 그 복습 뒤에 기록되므로 최근 이벤트부터 보면서 남은 취소 수만큼 복습을 건너뛴다
+        Map<LocalDate, Integer> cancelled = new HashMap<>();
+        for (Object[] row : reviewEventRepository.findRecentByNoteId(note.getId(),
+                PageRequest.of(0, REVIEW_HISTORY_LIMIT * 2))) {
+            LocalDate day = (LocalDate) row[1];
+            if (row[0] == ReviewEvent.Type.UNREVIEWED) {
+                cancelled.merge(day, 1, Integer::sum);
+            } else if (cancelled.getOrDefault(day, 0) > 0) {
+                cancelled.merge(day, -1, Integer::sum);
+            } else if (reviews.size() < REVIEW_HISTORY_LIMIT) {
+                reviews.add((LocalDateTime) row[2]);
+            }
+        }
+        Collections.reverse(reviews);
+        List<LocalDateTime> history = new ArrayList<>(reviews.size() + 1);
+        if (note.getCreatedAt() != null) history.add(note.getCreatedAt());
+        history.addAll(reviews);
+        return history;
     }
 
     private NoteDto toDto(Note note) {
+        NoteDto dto = toBaseDto(note);
+        dto.setReviewHistory(reviewHistoryOf(note));
+        return dto;
+    }
+
+    private NoteDto toBaseDto(Note note) {
         NoteDto dto = new NoteDto();
         dto.setId(note.getId());
         dto.setUserId(note.getUser().getId());
@@ -257,10 +432,10 @@ public class NoteService {
         dto.setContent(note.getContent());
         dto.setPublic(note.isPublic());
         dto.setUserName(note.getUser() != null ? note.getUser().getUsername() : "");
-        dto.setReviewHistory(note.getReviewHistory());
         dto.setCreatedAt(note.getCreatedAt());
         dto.setUpdatedAt(note.getUpdatedAt());
         dto.setLastReviewedDate(note.getLastReviewedDate());
+        dto.setGenerationStatus(note.getGenerationStatus() != null ? note.getGenerationStatus().name() : null);
         return dto;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.example.main.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.main.dto.PreparedPdf;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AI 입력용 PDF 전처리.
+ * 텍스트 레이어가 있는 페이지(슬라이드 등)는 텍스트만 뽑고, 스캔 페이지만 이미지로 렌더링한다.
+ * 결과는 uploads/derived/{sha256}/pdf/ 아래에 캐시되므로 같은 PDF의 재시도/재생성은 렌더링 없이 끝난다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PdfPreprocessService {
+    private static final int CACHE_VERSION = 1;
+    private static final String PDF_DIR = "pdf";
+    private static final String MANIFEST = "manifest.json";
+    private static final int LOCK_STRIPES = 16;
+
+    private final UploadService uploadService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ObjectMapper objectMapper;
+    // 같은 PDF를 동시에 두 번 렌더링하지 않도록 해시별 잠금
+    private final ReentrantLock[] locks = newLocks();
+
+    @Value("${pdf.min-text-chars:40}")
+    private int minTextChars;
+
+    @Value("${pdf.render-dpi:144}")
+    private float renderDpi;
+
+    @Value("${pdf.max-pages:200}")
+    private int maxPages;
+
+    /**
+     * 전처리 결과. 캐시에 있으면 바로 돌려준다.
+     * blob 업로드가 아니거나(예전 UUID 파일) 처리에 실패하면 null: 호출 측은 원본 PDF를 그대로 보낸다.
+     */
+    public PreparedPdf prepare(String pdfUrl) {
+        String sha256 = FileBlobService.hashOf(pdfUrl);
+        Path source = uploadService.resolve(pdfUrl);
+        if (sha256 == null || source == null || !Files.isRegularFile(source)) return null;
+        Path dir = pdfDir(sha256);
+        PreparedPdf cached = readManifest(dir);
+        if (cached != null) return cached;
+
+        ReentrantLock lock = locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            cached = readManifest(dir);
+            if (cached != null) return cached;
+            long started = System.nanoTime();
+            PreparedPdf prepared = process(source, dir);
+            writeManifest(dir, prepared);
+            log.info("Prepared PDF {}: {} pages, {} rendered in {} ms", sha256, prepared.pages().size(),
+                    prepared.pages().stream().filter(PreparedPdf.Page::hasImage).count(),
+                    (System.nanoTime() - started) / 1_000_000);
+            return prepared;
+        } catch (IOException | RuntimeException e) {
+            log.warn("PDF preprocessing failed for {}: {}", pdfUrl, e.toString());
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 이미지 페이지의 캐시 파일 경로
+     */
+    public Path pageImage(String pdfUrl, PreparedPdf.Page page) {
+        return pdfDir(FileBlobService.hashOf(pdfUrl)).resolve(page.image());
+    }
+
+    private PreparedPdf process(Path source, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        try (PDDocument document = Loader.loadPDF(source.toFile())) {
+            int pageCount = document.getNumberOfPages();
+            if (pageCount > maxPages) throw new IOException("Too many pages: " + pageCount);
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            PDFRenderer renderer = null;
+            List<PreparedPdf.Page> pages = new ArrayList<>(pageCount);
+            for (int number = 1; number <= pageCount; number++) {
+                stripper.setStartPage(number);
+                stripper.setEndPage(number);
+                String text = stripper.getText(document).strip();
+                if (visibleChars(text) >= minTextChars) {
+                    pages.add(new PreparedPdf.Page(number, text, null));
+                    continue;
+                }
+                // 텍스트 레이어가 없거나 빈약한 페이지(스캔본, 손글씨)만 렌더링
+                if (renderer == null) renderer = new PDFRenderer(document);
+                PDRectangle box = document.getPage(number - 1).getCropBox();
+                float longEdge = Math.max(box.getWidth(), box.getHeight());
+                // AI 입력 크기를 넘지 않게 바로 그 배율로 렌더링 (포스터 같은 큰 페이지도 메모리 일정)
+                float scale = Math.min(renderDpi / 72f, imageDerivativeService.getAiMaxEdge() / longEdge);
+                BufferedImage image = renderer.renderImage(number - 1, scale, ImageType.RGB);
+                String name = String.format("page-%04d.jpg", number);
+                imageDerivativeService.writeJpeg(image, dir.resolve(name));
+                pages.add(new PreparedPdf.Page(number, null, name));
+            }
+            return new PreparedPdf(CACHE_VERSION, pages);
+        }
+    }
+
+    // 공백과 깨진 글리프(U+FFFD)를 뺀 글자 수
+    static int visibleChars(String text) {
+        return (int) text.codePoints()
+                .filter(c -> !Character.isWhitespace(c) && c != 0xFFFD)
+                .count();
+    }
+
+    private PreparedPdf readManifest(Path dir) {
+        Path manifest = dir.resolve(MANIFEST);
+        if (!Files.isRegularFile(manifest)) return null;
+        try {
+            PreparedPdf prepared = objectMapper.readValue(manifest.toFile(), PreparedPdf.class);
+            if (prepared.version() != CACHE_VERSION) return null;
+            for (PreparedPdf.Page page : prepared.pages()) {
+                if (page.hasImage() && !Files.isRegularFile(dir.resolve(page.image()))) return null;
+            }
+            return prepared;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable PDF cache {}: {}", manifest, e.getMessage());
+            return null;
+        }
+    }
+
+    // 페이지 이미지를 모두 쓴 뒤 마지막에 원자적으로 기록: manifest가 있으면 캐시가 완전하다
+    private void writeManifest(Path dir, PreparedPdf prepared) throws IOException {
+        Path tmp = Files.createTempFile(dir, MANIFEST, ".part");
+        try {
+            objectMapper.writeValue(tmp.toFile(), prepared);
+            Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Path pdfDir(String sha256) {
+        return imageDerivativeService.derivedDir(sha256).resolve(PDF_DIR);
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new ReentrantLock();
+        return locks;
+    }
+}
@@ -5,12 +5,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.main.dto.AiQuiz;
 import com.example.main.dto.QuizDto;
 import com.example.main.entity.Note;
 import com.example.main.entity.Quiz;
 import com.example.main.repository.NoteRepository;
 import com.example.main.repository.QuizRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,10 +35,39 @@ public class QuizService {
                 .explanation(dto.getExplanation())
                 .build();
         quizRepository.save(quiz);
+        note.setQuizVersion(note.getQuizVersion() + 1);
         dto.setId(quiz.getId());
         return dto;
     }
 
+    /**
+     * 생성된 퀴즈를 한 번에 저장한다. quiz insert가 JDBC 배치로 묶인다 (보기는 같은 행의 JSON 컬럼).
+     */
+    @Transactional
+    public void saveQuizzes(Note note, List<AiQuiz> quizzes) {
+        List<Quiz> entities = new ArrayList<>();
+        for (AiQuiz q : quizzes) {
+            if (!q.isValid()) continue;
+            entities.add(Quiz.builder()
+                    .note(note)
+                    .question(q.question())
+                    .options(q.options())
+                    .answerIndex(q.answerIndex())
+                    .explanation(q.explanation())
+                    .build());
+        }
+        quizRepository.saveAll(entities);
+    }
+
+    /**
+     * 노트의 퀴즈를 행 단위 로딩 없이 벌크 삭제한다.
+     */
+    @Transactional
+    public void deleteByNoteId(Long noteId) {
+        quizRepository.deleteByNoteId(noteId);
+    }
+
+    @Transactional(readOnly = true)
     public List<QuizDto> getQuizzesByNoteId(Long noteId) {
         return quizRepository.findByNoteId(noteId).stream()
                 .map(this::toDto)
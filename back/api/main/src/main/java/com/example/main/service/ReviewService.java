@@ -0,0 +1,86 @@
+package com.example.main.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.dto.DueReviewDto;
+import com.example.main.dto.ReviewTimelineDto;
+import com.example.main.repository.NoteRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 에빙하우스 복습 주기(업로드 다음 날부터 1/3/7/30일차) 계산.
+ * 경과일은 업로드한 날짜 기준이며 Dashboard의 getReviewStage와 같은 규칙이다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewService {
+    static final int[] REVIEW_DAYS = {1, 3, 7, 30};
+    static final String[] REVIEW_STAGES = {"1차 복습", "2차 복습", "3차 복습", "최종 복습"};
+    private static final String COMPLETED = "복습 완료";
+
+    private final NoteRepository noteRepository;
+
+    /**
+     * 오늘 복습할 노트. 미완료는 단계순, 오늘 이미 복습한 노트는 뒤에 온다.
+     */
+    @Transactional(readOnly = true)
+    public List<DueReviewDto> getDueReviews(Long userId, LocalDate today) {
+        List<DueReviewDto> due = noteRepository.findDueReviews(userId,
+                dayStart(today, 1), dayStart(today, 0),
+                dayStart(today, 3), dayStart(today, 2),
+                dayStart(today, 7), dayStart(today, 6),
+                dayStart(today, 30), dayStart(today, 29));
+        for (DueReviewDto dto : due) {
+            int days = elapsedDays(dto.getCreatedAt(), today);
+            int stage = stageOf(days);
+            dto.setDays(days);
+            dto.setStage(stage);
+            dto.setCompleted(today.equals(dto.getLastReviewedDate()));
+            dto.setReviewStage(dto.isCompleted() ? COMPLETED : REVIEW_STAGES[stage - 1]);
+        }
+        due.sort(Comparator.comparing(DueReviewDto::isCompleted)
+                .thenComparingInt(DueReviewDto::getStage)
+                .thenComparing(DueReviewDto::getCreatedAt));
+        return due;
+    }
+
+    /**
+     * 망각곡선 마커용 경과일별 노트 수
+     */
+    @Transactional(readOnly = true)
+    public List<ReviewTimelineDto> getTimeline(Long userId, LocalDate today) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (LocalDateTime createdAt : noteRepository.findCreatedAtByUserId(userId)) {
+            if (createdAt == null) continue;
+            counts.merge(elapsedDays(createdAt, today), 1L, Long::sum);
+        }
+        List<ReviewTimelineDto> timeline = new ArrayList<>(counts.size());
+        counts.forEach((days, count) -> timeline.add(new ReviewTimelineDto(days, count)));
+        return timeline;
+    }
+
+    private static LocalDateTime dayStart(LocalDate today, int daysAgo) {
+        return today.minusDays(daysAgo).atStartOfDay();
+    }
+
+    private static int elapsedDays(LocalDateTime createdAt, LocalDate today) {
+        return (int) ChronoUnit.DAYS.between(createdAt.toLocalDate(), today);
+    }
+
+    private static int stageOf(int days) {
+        for (int i = 0; i < REVIEW_DAYS.length; i++) {
+            if (REVIEW_DAYS[i] == days) return i + 1;
+        }
+        throw new IllegalStateException("Not a review day: " + days);
+    }
+}
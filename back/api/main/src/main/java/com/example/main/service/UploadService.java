@@ -0,0 +1,286 @@
+package com.example.main.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.main.dto.StoredFile;
+import com.example.main.entity.FileBlob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 업로드 파일 저장.
+ * 컨테이너가 스풀해 둔 파트를 한 번 읽어 SHA-256과 크기를 계산하고, 새 내용이면 transferTo(같은 파일시스템이면 rename)로
+ * .tmp에 옮긴 뒤 원자적 rename 하므로 추가 복사 없이 저장되고 쓰다 만 파일이 /uploads로 서비스되지 않는다.
+ * 파일은 내용 해시로 이름 붙인 blob(uploads/ab/cd/{sha256}.ext)으로 저장되어 같은 내용은 한 번만 저장된다.
+ */
+@Slf4j
+@Service
+public class UploadService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_EXTENSION_LENGTH = 10;
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final FileBlobService fileBlobService;
+    private final Path root;
+    private final Path tmpDir;
+    private final ExecutorService ioExecutor;
+    private final Semaphore writePermits;
+    // 같은 해시의 저장과 정리가 겹치지 않도록 해시별 잠금 (스트라이프)
+    private final ReentrantLock[] blobLocks = new ReentrantLock[LOCK_STRIPES];
+
+    @Value("${upload.blob-grace-period-ms:86400000}")
+    private long blobGracePeriodMs;
+
+    public UploadService(FileBlobService fileBlobService,
+                         @Value("${upload.dir:uploads}") String uploadDir,
+                         @Value("${upload.parallelism:4}") int parallelism) throws IOException {
+        this.fileBlobService = fileBlobService;
+        this.root = Path.of(uploadDir).toAbsolutePath().normalize();
+        // rename이 원자적이려면 같은 파일시스템이어야 하므로 업로드 디렉터리 안에 둔다
+        this.tmpDir = root.resolve(".tmp");
+        Files.createDirectories(tmpDir);
+        // 저장은 디스크/DB 대기가 대부분이라 가상 스레드로 돌리고, 동시 쓰기 수만 전체에서 제한한다
+        this.ioExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("upload-io-", 0).factory());
+        this.writePermits = new Semaphore(parallelism);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ioExecutor.shutdown();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * 파일 하나를 저장한다. 이미 같은 내용이 있으면 새로 쓰지 않고 기존 blob URL을 돌려준다.
+     * 저장된 blob은 참조 수 0으로 등록되며, 노트가 생성될 때 {@link FileBlobService#acquire}로 참조된다.
+     */
+    public StoredFile store(MultipartFile file) throws IOException {
+        // 컨테이너가 이미 스풀해 둔 파트를 한 번 읽어 해시와 크기만 계산한다 (복사본을 만들지 않음)
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (InputStream in = file.getInputStream()) {
+            byte[] buf = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                digest.update(buf, 0, n);
+                size += n;
+            }
+        }
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        // transferTo 대상은 아직 없는 경로여야 한다 (Tomcat은 스풀 파일을 rename)
+        Path tmp = tmpDir.resolve("up-" + UUID.randomUUID() + ".part");
+        try {
+            ReentrantLock lock = lockFor(sha256);
+            lock.lock();
+            try {
+                // DB 등록(유예 시각 갱신)을 먼저 해서 정리 작업이 이 blob을 지우지 못하게 한다
+                FileBlob blob = registerBlob(sha256, extensionOf(file.getOriginalFilename()), size, file.getContentType());
+                String relative = FileBlobService.relativePath(sha256, blob.getExtension());
+                Path target = root.resolve(relative);
+                if (Files.exists(target)) {
+                    log.debug("Deduplicated upload {} ({} bytes)", sha256, size);
+                } else {
+                    // 스풀 파일을 같은 파일시스템의 .tmp로 옮긴 뒤 원자적 rename: 쓰다 만 파일이 서비스되지 않는다
+                    file.transferTo(tmp.toFile());
+                    Files.createDirectories(target.getParent());
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                return new StoredFile("/uploads/" + relative, sha256, size, blob.getContentType());
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 여러 파일을 병렬로 저장한다. 결과 순서는 입력 순서와 같다.
+     * 하나라도 실패하면 예외를 던진다.
+     */
+    public List<StoredFile> storeAll(List<MultipartFile> files) throws IOException {
+        if (files.isEmpty()) return List.of();
+        if (files.size() == 1) return List.of(store(files.get(0)));
+        List<CompletableFuture<StoredFile>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    writePermits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Upload interrupted"));
+                }
+                try {
+                    return store(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    writePermits.release();
+                }
+            }, ioExecutor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            // 이미 저장된 파일은 참조 수 0인 blob으로 남고 유예 시간 후 정리된다
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException(cause);
+        }
+        List<StoredFile> stored = new ArrayList<>(files.size());
+        for (CompletableFuture<StoredFile> f : futures) {
+            stored.add(f.join());
+        }
+        return stored;
+    }
+
+    /**
+     * 예전(UUID 이름) 업로드 파일을 지운다. blob 경로는 참조 수로 관리되므로 무시한다.
+     */
+    public void deleteLegacy(String url) {
+        if (FileBlobService.hashOf(url) != null) return;
+        deleteQuietly(resolve(url));
+    }
+
+    /**
+     * 참조 수가 0이고 유예 시간이 지난 blob을 DB와 디스크에서 지운다.
+     * 유예 시간은 업로드 후 노트가 저장되기 전까지(참조 수 0) 파일이 지워지지 않도록 하기 위한 것이다.
+     */
+    @Scheduled(fixedDelayString = "${upload.blob-sweep-interval-ms:3600000}")
+    public int sweepUnreferenced() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(blobGracePeriodMs));
+        int deleted = 0;
+        while (true) {
+            List<String> candidates = fileBlobService.findUnreferenced(cutoff, SWEEP_BATCH_SIZE);
+            int deletedInBatch = 0;
+            for (String sha256 : candidates) {
+                ReentrantLock lock = lockFor(sha256);
+                lock.lock();
+                try {
+                    if (fileBlobService.deleteIfUnreferenced(sha256, cutoff)) {
+                        deleteBlobFiles(sha256);
+                        deletedInBatch++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            deleted += deletedInBatch;
+            if (candidates.size() < SWEEP_BATCH_SIZE || deletedInBatch == 0) break;
+        }
+        if (deleted > 0) log.info("Removed {} unreferenced upload blobs", deleted);
+        return deleted;
+    }
+
+    /**
+     * /uploads/... URL을 실제 경로로 바꾼다. 잘못된 경로면 null.
+     */
+    public Path resolve(String url) {
+        if (url == null || !url.startsWith("/uploads/")) return null;
+        Path path = root.resolve(url.substring("/uploads/".length())).normalize();
+        return path.startsWith(root) && !path.startsWith(tmpDir) ? path : null;
+    }
+
+    private FileBlob registerBlob(String sha256, String extension, long size, String contentType) {
+        try {
+            return fileBlobService.register(sha256, extension, size, contentType);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 노드가 같은 내용을 먼저 등록함
+            return fileBlobService.register(sha256, extension, size, contentType);
+        }
+    }
+
+    private void deleteBlobFiles(String sha256) {
+        Path dir = root.resolve(FileBlobService.relativePath(sha256, "")).getParent();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, sha256 + "*")) {
+            for (Path file : files) deleteQuietly(file);
+        } catch (NoSuchFileException e) {
+            // 이미 없음
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {}: {}", sha256, e.getMessage());
+        }
+        // 파생 파일(썸네일, PDF 전처리 캐시 등)도 함께 정리
+        Path derived = root.resolve(ImageDerivativeService.DERIVED_DIR).resolve(sha256);
+        try (Stream<Path> files = Files.walk(derived)) {
+            files.sorted(Comparator.reverseOrder()).forEach(this::deleteQuietly);
+        } catch (NoSuchFileException e) {
+            // 파생 파일 없음
+        } catch (IOException e) {
+            log.warn("Failed to delete derived files {}: {}", sha256, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    private ReentrantLock lockFor(String sha256) {
+        return blobLocks[Integer.parseInt(sha256.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    private static String extensionOf(String originalName) {
+        if (originalName == null) return "";
+        int idx = originalName.lastIndexOf('.');
+        if (idx == -1) return "";
+        String ext = originalName.substring(idx + 1).toLowerCase(Locale.ROOT);
+        // 파일명에 그대로 쓰이므로 영숫자만 허용
+        if (ext.isEmpty() || ext.length() > MAX_EXTENSION_LENGTH || !ext.chars().allMatch(Character::isLetterOrDigit)
+                || !ext.chars().allMatch(c -> c < 128)) {
+            return "";
+        }
+        return "." + ext;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.main.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.dto.ActivityDto;
+import com.example.main.dto.UserStatsDto;
+import com.example.main.entity.ReviewEvent;
+import com.example.main.entity.UserStats;
+import com.example.main.repository.NoteRepository;
+import com.example.main.repository.ReviewEventRepository;
+import com.example.main.repository.UserRepository;
+import com.example.main.repository.UserStatsRepository;
+import com.example.main.util.DayBitmap;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 사용자별 대시보드 통계(user_stats)를 증분으로 갱신한다.
+ * 갱신은 노트 변경과 같은 트랜잭션에서 통계 행을 잠그고(사용자별 직렬화) 카운터만 고치므로 비용이 일정하다.
+ * 통계 행이 없는 예전 사용자는 처음 접근할 때 notes와 review_events에서 한 번 재구성한다.
+ * 복습한 날은 하루 1비트 비트맵(DayBitmap)으로도 유지해 연속 일수와 활동 히트맵을 행 하나로 답한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStatsService {
+    // 마지막 복습 단계(30일차)까지 보려면 31일치 업로드 수가 필요
+    private static final int NOTE_DAYS_RETAINED = ReviewService.REVIEW_DAYS[ReviewService.REVIEW_DAYS.length - 1] + 1;
+
+    private final UserStatsRepository userStatsRepository;
+    private final UserRepository userRepository;
+    private final NoteRepository noteRepository;
+    private final ReviewEventRepository reviewEventRepository;
+
+    @Value("${stats.review-days-retained:90}")
+    private int reviewDaysRetained;
+
+    @Value("${stats.activity-days:730}")
+    private int activityDays;
+
+    /**
+     * 통계 행 하나(PK 조회)로 응답한다. 없으면 재구성해서 저장한다.
+     */
+    @Transactional
+    public UserStatsDto getStats(Long userId, LocalDate today) {
+        UserStats stats = userStatsRepository.findById(userId).orElse(null);
+        if (stats == null) stats = lockOrRebuild(userId).stats();
+        return toDto(stats, today);
+    }
+
+    /**
+     * 최근 {@code days}일 활동 히트맵. 통계 행 하나만 읽는다.
+     */
+    @Transactional
+    public ActivityDto getActivity(Long userId, LocalDate today, int days) {
+        int span = Math.max(1, Math.min(days, activityDays));
+        UserStats stats = userStatsRepository.findById(userId).orElse(null);
+        if (stats == null) stats = lockOrRebuild(userId).stats();
+        DayBitmap bitmap = bitmapOf(stats);
+        LocalDate from = today.minusDays(span - 1L);
+        ActivityDto dto = new ActivityDto();
+        dto.setFrom(from);
+        dto.setTo(today);
+        dto.setDays(span);
+        dto.setBitmap(Base64.getEncoder().encodeToString(bitmap.slice(from, span)));
+        dto.setActiveDays(bitmap.countActive(from, today));
+        dto.setCurrentStreak(currentStreak(stats, today));
+        return dto;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void noteCreated(Long userId, String category, LocalDateTime createdAt) {
+        update(userId, stats -> {
+            stats.setNoteCount(stats.getNoteCount() + 1);
+            stats.setNotesByCategory(adjust(stats.getNotesByCategory(), category, 1L));
+            if (createdAt != null) {
+                stats.setNotesByDay(adjust(stats.getNotesByDay(), createdAt.toLocalDate().toString(), 1));
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void noteDeleted(Long userId, String category, LocalDateTime createdAt) {
+        // 이미 한 복습은 기록으로 남긴다
+        update(userId, stats -> {
+            stats.setNoteCount(Math.max(0, stats.getNoteCount() - 1));
+            stats.setNotesByCategory(adjust(stats.getNotesByCategory(), category, -1L));
+            if (createdAt != null) {
+                stats.setNotesByDay(adjust(stats.getNotesByDay(), createdAt.toLocalDate().toString(), -1));
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryChanged(Long userId, String from, String to) {
+        if (from == null ? to == null : from.equals(to)) return;
+        update(userId, stats -> {
+            Map<String, Long> categories = adjust(stats.getNotesByCategory(), from, -1L);
+            stats.setNotesByCategory(adjust(categories, to, 1L));
+        });
+    }
+
+    /**
+     * @param previous 복습 처리 전 노트의 lastReviewedDate. 같은 날 다시 누르면 세지 않는다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void noteReviewed(Long userId, LocalDate previous, LocalDate today) {
+        if (today.equals(previous)) return;
+        update(userId, stats -> {
+            stats.setReviewsByDay(adjust(stats.getReviewsByDay(), today.toString(), 1));
+            setActivity(stats, bitmapOf(stats).with(today, true, activityDays));
+            recomputeStreak(stats);
+            stats.setLongestStreak(Math.max(stats.getLongestStreak(), stats.getCurrentStreak()));
+        });
+    }
+
+    /**
+     * 복습 취소. 취소된 날의 복습 수를 되돌리고, 그날 복습이 하나도 남지 않으면 연속 일수를 다시 계산한다.
+     * 최장 연속 일수는 지난 기록이므로 줄이지 않는다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void noteUnreviewed(Long userId, LocalDate previous) {
+        if (previous == null) return;
+        update(userId, stats -> {
+            Map<String, Integer> reviews = adjust(stats.getReviewsByDay(), previous.toString(), -1);
+            stats.setReviewsByDay(reviews);
+            // 그날 복습이 모두 취소됐으면 활동 비트를 끄고 연속 일수를 다시 계산한다.
+            // 날짜별 복습 수를 보관하지 않는 오래된 날은 다른 복습이 있었는지 알 수 없으므로 비트를 남긴다
+            boolean tracked = !previous.isBefore(LocalDate.now().minusDays(reviewDaysRetained));
+            if (tracked && !reviews.containsKey(previous.toString())) {
+                setActivity(stats, bitmapOf(stats).with(previous, false, activityDays));
+                recomputeStreak(stats);
+            }
+        });
+    }
+
+    private void update(Long userId, Consumer<UserStats> change) {
+        Locked locked = lockOrRebuild(userId);
+        // 방금 재구성했으면 이번 변경(같은 트랜잭션에서 이미 반영됨)까지 포함돼 있다
+        if (locked.rebuilt()) return;
+        UserStats stats = locked.stats();
+        change.accept(stats);
+        prune(stats, LocalDate.now());
+    }
+
+    private record Locked(UserStats stats, boolean rebuilt) {
+    }
+
+    private Locked lockOrRebuild(Long userId) {
+        UserStats stats = userStatsRepository.findByIdForUpdate(userId).orElse(null);
+        if (stats != null) return new Locked(stats, false);
+        // 처음 만드는 경우끼리는 사용자 행 잠금으로 직렬화
+        userRepository.findByIdForUpdate(userId).orElseThrow();
+        stats = userStatsRepository.findByIdForUpdate(userId).orElse(null);
+        if (stats != null) return new Locked(stats, false);
+        return new Locked(userStatsRepository.save(rebuild(userId, LocalDate.now())), true);
+    }
+
+    /**
+     * notes와 review_events에서 통계를 다시 만든다 (사용자당 한 번).
+     */
+    UserStats rebuild(Long userId, LocalDate today) {
+        Map<String, Long> categories = new HashMap<>();
+        long noteCount = 0;
+        for (Object[] row : noteRepository.countByCategory(userId)) {
+            categories.put((String) row[0], (Long) row[1]);
+            noteCount += (Long) row[1];
+        }
+        Map<String, Integer> notesByDay = new HashMap<>();
+        for (LocalDateTime createdAt : noteRepository.findCreatedAtByUserId(userId)) {
+            if (createdAt != null) notesByDay.merge(createdAt.toLocalDate().toString(), 1, Integer::sum);
+        }
+        // 복습한 날 = REVIEWED 수가 취소(UNREVIEWED)보다 많은 날
+        Map<LocalDate, Integer> net = new TreeMap<>();
+        for (Object[] row : reviewEventRepository.countByDayAndType(userId)) {
+            int count = ((Long) row[2]).intValue();
+            net.merge((LocalDate) row[0], row[1] == ReviewEvent.Type.REVIEWED ? count : -count, Integer::sum);
+        }
+        Map<String, Integer> reviewsByDay = new HashMap<>();
+        DayBitmap bitmap = DayBitmap.empty();
+        for (Map.Entry<LocalDate, Integer> entry : net.entrySet()) {
+            if (entry.getValue() <= 0) continue;
+            reviewsByDay.put(entry.getKey().toString(), entry.getValue());
+            bitmap = bitmap.with(entry.getKey(), true, activityDays);
+        }
+        UserStats stats = UserStats.builder()
+                .userId(userId)
+                .noteCount(noteCount)
+                .notesByCategory(categories)
+                .notesByDay(notesByDay)
+                .reviewsByDay(reviewsByDay)
+                .build();
+        setActivity(stats, bitmap);
+        recomputeStreak(stats);
+        stats.setLongestStreak(bitmap.longestStreak());
+        prune(stats, today);
+        return stats;
+    }
+
+    private UserStatsDto toDto(UserStats stats, LocalDate today) {
+        UserStatsDto dto = new UserStatsDto();
+        dto.setUserId(stats.getUserId());
+        dto.setNoteCount(stats.getNoteCount());
+        dto.setNotesByCategory(copy(stats.getNotesByCategory()));
+        dto.setReviewsByDay(new TreeMap<>(copy(stats.getReviewsByDay())));
+        dto.setCurrentStreak(currentStreak(stats, today));
+        dto.setLongestStreak(stats.getLongestStreak());
+        dto.setLastReviewDay(stats.getLastReviewDay());
+        Map<String, Integer> due = new LinkedHashMap<>();
+        int dueToday = 0;
+        Map<String, Integer> notesByDay = copy(stats.getNotesByDay());
+        for (int i = 0; i < ReviewService.REVIEW_DAYS.length; i++) {
+            int count = notesByDay.getOrDefault(today.minusDays(ReviewService.REVIEW_DAYS[i]).toString(), 0);
+            due.put(ReviewService.REVIEW_STAGES[i], count);
+            dueToday += count;
+        }
+        dto.setDueByStage(due);
+        dto.setDueToday(dueToday);
+        dto.setReviewedToday(copy(stats.getReviewsByDay()).getOrDefault(today.toString(), 0));
+        return dto;
+    }
+
+    private static int currentStreak(UserStats stats, LocalDate today) {
+        LocalDate last = stats.getLastReviewDay();
+        // 어제까지 복습했으면 오늘 아직 안 했어도 연속으로 본다
+        return last != null && !last.isBefore(today.minusDays(1)) ? stats.getCurrentStreak() : 0;
+    }
+
+    /**
+     * 활동 비트맵으로 마지막 복습일과 그날까지의 연속 일수를 다시 계산한다.
+     */
+    private static void recomputeStreak(UserStats stats) {
+        DayBitmap bitmap = bitmapOf(stats);
+        LocalDate last = bitmap.lastActiveDay();
+        stats.setLastReviewDay(last);
+        stats.setCurrentStreak(last != null ? bitmap.streakEndingAt(last) : 0);
+    }
+
+    private static DayBitmap bitmapOf(UserStats stats) {
+        return DayBitmap.of(stats.getActivityStart(), stats.getActivityBits());
+    }
+
+    private static void setActivity(UserStats stats, DayBitmap bitmap) {
+        stats.setActivityStart(bitmap.getStart());
+        stats.setActivityBits(bitmap.getBits());
+    }
+
+    private void prune(UserStats stats, LocalDate today) {
+        String noteCutoff = today.minusDays(NOTE_DAYS_RETAINED).toString();
+        String reviewCutoff = today.minusDays(reviewDaysRetained).toString();
+        if (stats.getNotesByDay() != null && stats.getNotesByDay().keySet().stream().anyMatch(k -> k.compareTo(noteCutoff) < 0)) {
+            Map<String, Integer> kept = new HashMap<>(stats.getNotesByDay());
+            kept.keySet().removeIf(k -> k.compareTo(noteCutoff) < 0);
+            stats.setNotesByDay(kept);
+        }
+        if (stats.getReviewsByDay() != null && stats.getReviewsByDay().keySet().stream().anyMatch(k -> k.compareTo(reviewCutoff) < 0)) {
+            Map<String, Integer> kept = new HashMap<>(stats.getReviewsByDay());
+            kept.keySet().removeIf(k -> k.compareTo(reviewCutoff) < 0);
+            stats.setReviewsByDay(kept);
+        }
+    }
+
+    /**
+     * 카운터 하나를 바꾼 새 맵. JSON 컬럼 변경이 확실히 감지되도록 항상 새 인스턴스를 돌려주고, 0 이하가 된 키는 지운다.
+     */
+    private static <N extends Number> Map<String, N> adjust(Map<String, N> counts, String key, N delta) {
+        Map<String, N> updated = new HashMap<>(copy(counts));
+        if (key == null) return updated;
+        long next = (updated.containsKey(key) ? updated.get(key).longValue() : 0L) + delta.longValue();
+        if (next <= 0) {
+            updated.remove(key);
+        } else {
+            updated.put(key, castLike(delta, next));
+        }
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <N extends Number> N castLike(N sample, long value) {
+        return sample instanceof Integer ? (N) Integer.valueOf((int) value) : (N) Long.valueOf(value);
+    }
+
+    private static <V> Map<String, V> copy(Map<String, V> map) {
+        return map != null ? map : Map.of();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.main.util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * 하루 1비트 활동 비트맵. 비트 i는 start + i일이며 바이트 안에서는 낮은 비트부터 채운다.
+ * 2년치가 약 92바이트라 사용자 통계 행에 그대로 넣을 수 있다.
+ * 최대 일수를 넘으면 오래된 쪽을 8일(1바이트) 단위로 잘라낸다. 불변 객체이며 변경은 새 인스턴스를 돌려준다.
+ */
+public final class DayBitmap {
+    private static final DayBitmap EMPTY = new DayBitmap(null, new byte[0]);
+
+    private final LocalDate start;
+    private final byte[] bits;
+
+    private DayBitmap(LocalDate start, byte[] bits) {
+        this.start = start;
+        this.bits = bits;
+    }
+
+    public static DayBitmap of(LocalDate start, byte[] bits) {
+        if (start == null || bits == null || bits.length == 0) return EMPTY;
+        return new DayBitmap(start, bits.clone());
+    }
+
+    public static DayBitmap empty() {
+        return EMPTY;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public byte[] getBits() {
+        return bits.clone();
+    }
+
+    /**
+     * {@code day}의 비트를 바꾼 비트맵. 최근 {@code maxDays}일 밖으로 밀려난 날은 버려진다.
+     */
+    public DayBitmap with(LocalDate day, boolean active, int maxDays) {
+        if (isActive(day) == active) return this;
+        if (start == null) {
+            return new DayBitmap(day, new byte[]{1});
+        }
+        LocalDate newStart = start;
+        byte[] newBits = bits;
+        long offset = ChronoUnit.DAYS.between(start, day);
+        if (offset < 0) {
+            // 앞쪽으로 바이트 단위 확장
+            int prepend = (int) ((-offset + 7) / 8);
+            newBits = new byte[bits.length + prepend];
+            System.arraycopy(bits, 0, newBits, prepend, bits.length);
+            newStart = start.minusDays(8L * prepend);
+        } else if (offset >= 8L * bits.length) {
+            newBits = Arrays.copyOf(bits, (int) (offset / 8) + 1);
+        } else {
+            newBits = bits.clone();
+        }
+        int index = (int) ChronoUnit.DAYS.between(newStart, day);
+        if (active) {
+            newBits[index / 8] |= (byte) (1 << (index % 8));
+        } else {
+            newBits[index / 8] &= (byte) ~(1 << (index % 8));
+        }
+        int maxBytes = Math.max(1, (maxDays + 7) / 8);
+        if (newBits.length > maxBytes) {
+            int drop = newBits.length - maxBytes;
+            newBits = Arrays.copyOfRange(newBits, drop, newBits.length);
+            newStart = newStart.plusDays(8L * drop);
+        }
+        return new DayBitmap(newStart, newBits);
+    }
+
+    public boolean isActive(LocalDate day) {
+        if (start == null) return false;
+        long index = ChronoUnit.DAYS.between(start, day);
+        if (index < 0 || index >= 8L * bits.length) return false;
+        return (bits[(int) (index / 8)] & (1 << (index % 8))) != 0;
+    }
+
+    /**
+     * 마지막으로 활동한 날. 없으면 null.
+     */
+    public LocalDate lastActiveDay() {
+        for (int i = bits.length - 1; i >= 0; i--) {
+            if (bits[i] == 0) continue;
+            int bit = 31 - Integer.numberOfLeadingZeros(bits[i] & 0xff);
+            return start.plusDays(8L * i + bit);
+        }
+        return null;
+    }
+
+    /**
+     * {@code day}에서 끝나는 연속 활동 일수 (그날 활동이 없으면 0)
+     */
+    public int streakEndingAt(LocalDate day) {
+        int streak = 0;
+        while (isActive(day.minusDays(streak))) {
+            streak++;
+        }
+        return streak;
+    }
+
+    /**
+     * 비트맵 안에서 가장 긴 연속 활동 일수
+     */
+    public int longestStreak() {
+        int longest = 0;
+        int run = 0;
+        for (int i = 0; i < 8 * bits.length; i++) {
+            run = (bits[i / 8] & (1 << (i % 8))) != 0 ? run + 1 : 0;
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+
+    public int countActive(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (isActive(day)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * [from, from + days) 구간을 같은 형식(낮은 비트부터)의 새 바이트 배열로 잘라낸다. 히트맵 응답용.
+     */
+    public byte[] slice(LocalDate from, int days) {
+        byte[] out = new byte[(days + 7) / 8];
+        for (int i = 0; i < days; i++) {
+            if (isActive(from.plusDays(i))) out[i / 8] |= (byte) (1 << (i % 8));
+        }
+        return out;
+    }
+}
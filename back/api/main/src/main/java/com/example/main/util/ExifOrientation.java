@@ -0,0 +1,68 @@
+package com.example.main.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * JPEG의 EXIF Orientation(0x0112) 값만 읽는다.
+ * 휴대폰 사진은 픽셀은 가로로 두고 회전 정보만 EXIF에 적기 때문에, 파생 이미지를 만들 때 반영해야 한다.
+ */
+public final class ExifOrientation {
+    private static final int SCAN_LIMIT = 128 * 1024;
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * @return 1~8, 없거나 읽을 수 없으면 1 (회전 없음)
+     */
+    public static int read(Path jpeg) {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(jpeg)) {
+            head = in.readNBytes(SCAN_LIMIT);
+        } catch (IOException e) {
+            return 1;
+        }
+        try {
+            return parse(ByteBuffer.wrap(head));
+        } catch (RuntimeException e) {
+            return 1; // 잘린 헤더 등
+        }
+    }
+
+    private static int parse(ByteBuffer buf) {
+        buf.order(ByteOrder.BIG_ENDIAN);
+        if (buf.remaining() < 4 || (buf.getShort() & 0xFFFF) != 0xFFD8) return 1; // SOI
+        while (buf.remaining() >= 4) {
+            int marker = buf.getShort() & 0xFFFF;
+            int length = buf.getShort() & 0xFFFF;
+            if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || length < 2) return 1; // 스캔 시작 전까지만
+            int segmentEnd = buf.position() + length - 2;
+            if (marker == 0xFFE1 && length >= 8
+                    && buf.getInt(buf.position()) == 0x45786966 && buf.getShort(buf.position() + 4) == 0) { // "Exif\0\0"
+                return parseTiff(buf.slice(buf.position() + 6, length - 8));
+            }
+            buf.position(segmentEnd);
+        }
+        return 1;
+    }
+
+    private static int parseTiff(ByteBuffer tiff) {
+        int byteOrder = tiff.getShort(0) & 0xFFFF;
+        tiff.order(byteOrder == 0x4949 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN); // "II" / "MM"
+        int ifd0 = tiff.getInt(4);
+        int entries = tiff.getShort(ifd0) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd0 + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                int value = tiff.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+}
@@ -7,21 +7,33 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * JWT 발급/검증. 서명 키와 파서는 불변·스레드 안전하므로 기동 시 한 번만 만든다.
+ */
 @Component
 public class JwtUtil {
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expiration;
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expiration = expiration;
+    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    /**
+     * 서명 검증을 통과한 토큰의 클레임
+     */
+    public record VerifiedToken(String username, Date issuedAt, Date expiration) {
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -30,15 +42,31 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * 토큰을 한 번만 파싱해 서명과 만료를 검증하고 필요한 클레임을 돌려준다.
+     *
+     * @throws JwtException 서명 불일치, 만료, 형식 오류
+     * @throws IllegalArgumentException 토큰이 비어 있는 경우
+     */
+    public VerifiedToken verify(String token) {
+        // parseClaimsJws가 exp도 검사하므로 만료된 토큰은 ExpiredJwtException
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getSubject() == null) {
+            throw new MalformedJwtException("JWT has no subject");
+        }
+        return new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration());
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -48,24 +76,15 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, java.util.function.Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parser.parseClaimsJws(token).getBody();
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        try {
+            return verify(token).username().equals(userDetails.getUsername());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.example.main.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 희소 필드셋: {@code fields=title,category}처럼 요청한 JSON 속성만 남긴다.
+ * 목록에서 항목을 구분할 수 있도록 id는 항상 포함하고, 응답 타입에 없는 이름은 거절한다.
+ */
+public final class SparseFields {
+    private static final String ID = "id";
+    private static final Map<Class<?>, Set<String>> PROPERTIES = new ConcurrentHashMap<>();
+
+    private final Set<String> names; // null이면 전체
+    private final ObjectMapper objectMapper;
+
+    private SparseFields(Set<String> names, ObjectMapper objectMapper) {
+        this.names = names;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @throws IllegalArgumentException {@code type}의 JSON 속성이 아닌 이름이 있는 경우 (메시지는 그 이름)
+     */
+    public static SparseFields parse(String fields, Class<?> type, ObjectMapper objectMapper) {
+        if (fields == null || fields.isBlank()) return new SparseFields(null, objectMapper);
+        Set<String> known = PROPERTIES.computeIfAbsent(type, t -> propertiesOf(t, objectMapper));
+        Set<String> names = new LinkedHashSet<>();
+        names.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) continue;
+            if (!known.contains(name)) throw new IllegalArgumentException(name);
+            names.add(name);
+        }
+        return new SparseFields(names, objectMapper);
+    }
+
+    public Object select(Object value) {
+        if (names == null || value == null) return value;
+        ObjectNode node = objectMapper.valueToTree(value);
+        node.retain(names);
+        return node;
+    }
+
+    public List<Object> selectAll(List<?> values) {
+        if (names == null) return Collections.unmodifiableList(values);
+        return values.stream().map(this::select).collect(Collectors.toList());
+    }
+
+    private static Set<String> propertiesOf(Class<?> type, ObjectMapper objectMapper) {
+        SerializationConfig config = objectMapper.getSerializationConfig();
+        return config.introspect(config.constructType(type)).findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
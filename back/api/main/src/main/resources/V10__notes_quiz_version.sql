@@ -0,0 +1,2 @@
+-- 퀴즈 조회 ETag용 버전 (퀴즈가 바뀔 때마다 1 증가)
+ALTER TABLE notes ADD COLUMN quiz_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- V9 백필을 확인한 뒤 예전 컬렉션 테이블을 지운다. 배포가 끝나고 V9와 따로 실행한다.
+-- 예전 테이블에 값이 있는데 JSON 컬럼이 비어 있는 행이 하나라도 있으면 지우지 않는다 (V9를 다시 실행할 것).
+SET @missing = (SELECT COUNT(*) FROM notes n
+                WHERE (n.keywords IS NULL AND EXISTS (SELECT 1 FROM note_keywords k WHERE k.note_id = n.id))
+                   OR (n.image_urls IS NULL AND EXISTS (SELECT 1 FROM note_images i WHERE i.note_id = n.id)))
+             + (SELECT COUNT(*) FROM quiz q
+                WHERE q.option_list IS NULL AND EXISTS (SELECT 1 FROM quiz_options o WHERE o.quiz_id = q.id));
+SELECT @missing AS rows_not_backfilled;
+
+SET @ddl = IF(@missing = 0, 'DROP TABLE IF EXISTS note_keywords, note_images, quiz_options', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
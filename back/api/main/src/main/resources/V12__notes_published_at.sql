@@ -0,0 +1,8 @@
+-- 노트가 공개로 바뀐 시각 (패싯 trending 가중치 기준). 배포 전에 실행하며, 다시 실행해도 안전하다.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notes' AND COLUMN_NAME = 'published_at') = 0,
+              'ALTER TABLE notes ADD COLUMN published_at DATETIME(6)', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- 전환 시각을 알 수 없는 기존 공개 노트는 생성 시각으로 둔다
+UPDATE notes SET published_at = created_at WHERE is_public = TRUE AND published_at IS NULL;
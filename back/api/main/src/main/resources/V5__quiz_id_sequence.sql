@@ -0,0 +1,6 @@
+-- quiz.id를 IDENTITY에서 pooled 시퀀스로 전환 (JDBC 배치 insert 용)
+-- MySQL에는 시퀀스가 없어 Hibernate가 quiz_seq 테이블로 에뮬레이션한다.
+-- 배포 전에 실행해 기존 id와 충돌하지 않는 값으로 시작하게 한다 (allocationSize = 50).
+CREATE TABLE IF NOT EXISTS quiz_seq (next_val BIGINT);
+DELETE FROM quiz_seq;
+INSERT INTO quiz_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM quiz;
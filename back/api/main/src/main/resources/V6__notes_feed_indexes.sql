@@ -0,0 +1,5 @@
+-- 공개 노트 피드(keyset: created_at DESC, id DESC)와 서버 필터용 인덱스
+CREATE INDEX idx_notes_public_created ON notes (is_public, created_at, id);
+CREATE INDEX idx_notes_public_category_created ON notes (is_public, category, created_at, id);
+CREATE INDEX idx_notes_public_title_created ON notes (is_public, title, created_at, id);
+CREATE INDEX idx_note_keywords_keyword ON note_keywords (keyword, note_id);
@@ -0,0 +1,2 @@
+-- 오늘의 복습(/api/reviews/due) 조회용: 사용자별 생성일 범위 스캔
+CREATE INDEX idx_notes_user_created ON notes (user_id, created_at);
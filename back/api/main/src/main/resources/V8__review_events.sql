@@ -0,0 +1,20 @@
+-- 복습 기록을 노트별 컬렉션(note_review_history)에서 추가 전용 이벤트 로그로 옮긴다
+CREATE TABLE IF NOT EXISTS review_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    note_id BIGINT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    review_day DATE NOT NULL,
+    occurred_at DATETIME(6) NOT NULL
+);
+CREATE INDEX idx_review_events_user_time ON review_events (user_id, occurred_at);
+CREATE INDEX idx_review_events_note_time ON review_events (note_id, occurred_at);
+
+-- 업로드 시각으로 넣어 둔 항목을 뺀 나머지가 실제 복습
+INSERT INTO review_events (user_id, note_id, type, review_day, occurred_at)
+SELECT n.user_id, h.note_id, 'REVIEWED', DATE(h.reviewed_at), h.reviewed_at
+FROM note_review_history h JOIN notes n ON n.id = h.note_id
+WHERE h.reviewed_at <> n.created_at;
+
+-- 활동 비트맵을 이벤트 기준으로 다시 만들도록 통계 행을 비운다 (첫 조회 때 재구성)
+DELETE FROM user_stats;
@@ -0,0 +1,54 @@
+-- 노트 키워드/이미지, 퀴즈 보기를 컬렉션 테이블에서 같은 행의 JSON 컬럼으로 옮긴다 (MySQL 8)
+-- 배포 전에 실행한다. 새 빌드가 먼저 뜨면 ddl-auto가 빈 컬럼/테이블을 먼저 만들 수 있으므로
+-- 모든 단계가 이미 있는 컬럼/인덱스/행을 건너뛰며, 다시 실행해도 안전하다.
+-- 예전 테이블(note_keywords, note_images, quiz_options)은 여기서 지우지 않는다 (백필 확인 후 V11).
+
+-- 컬럼 추가: MySQL 8.0에는 ADD COLUMN IF NOT EXISTS가 없어 information_schema로 확인한다
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notes' AND COLUMN_NAME = 'keywords') = 0,
+              'ALTER TABLE notes ADD COLUMN keywords JSON', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notes' AND COLUMN_NAME = 'image_urls') = 0,
+              'ALTER TABLE notes ADD COLUMN image_urls JSON', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'quiz' AND COLUMN_NAME = 'option_list') = 0,
+              'ALTER TABLE quiz ADD COLUMN option_list JSON', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- 백필: 아직 비어 있는 행만 채운다 (새 빌드가 이미 쓴 값은 덮어쓰지 않는다)
+UPDATE notes n SET keywords = (SELECT JSON_ARRAYAGG(k.keyword) FROM note_keywords k WHERE k.note_id = n.id)
+WHERE n.keywords IS NULL;
+UPDATE notes n SET image_urls = (SELECT JSON_ARRAYAGG(i.image_url) FROM note_images i WHERE i.note_id = n.id)
+WHERE n.image_urls IS NULL;
+-- 보기 테이블에는 순서 컬럼이 없어 지금까지도 저장된 행 순서로 읽었다. 같은 순서로 합친다
+UPDATE quiz q SET option_list = (SELECT JSON_ARRAYAGG(o.option_text) FROM quiz_options o WHERE o.quiz_id = q.id)
+WHERE q.option_list IS NULL;
+
+-- 키워드 검색용 색인 테이블
+CREATE TABLE IF NOT EXISTS note_keyword_index (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    note_id BIGINT NOT NULL,
+    keyword VARCHAR(255) NOT NULL
+);
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'note_keyword_index'
+                 AND INDEX_NAME = 'idx_note_keyword_index_keyword') = 0,
+              'CREATE INDEX idx_note_keyword_index_keyword ON note_keyword_index (keyword, note_id)', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'note_keyword_index'
+                 AND INDEX_NAME = 'idx_note_keyword_index_note') = 0,
+              'CREATE INDEX idx_note_keyword_index_note ON note_keyword_index (note_id)', 'DO 0');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- 이미 색인된 (note_id, keyword)는 건너뛴다
+INSERT INTO note_keyword_index (note_id, keyword)
+SELECT DISTINCT k.note_id, k.keyword FROM note_keywords k
+WHERE k.keyword IS NOT NULL AND k.keyword <> ''
+  AND NOT EXISTS (SELECT 1 FROM note_keyword_index x WHERE x.note_id = k.note_id AND x.keyword = k.keyword);
@@ -0,0 +1,84 @@
+package com.example.main.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void growsAdditivelyAndShrinksOnOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0, 2.0, 0.9);
+        // 한도만큼 성공하면 +1
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+            limiter.onSuccess(SECOND);
+        }
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(5);
+
+        int before = limiter.getLimit();
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        limiter.onDropped();
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(before / 2 + 1);
+
+        // 평균보다 훨씬 느린 응답도 한도를 줄인다
+        int beforeSlow = limiter.getLimit();
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        limiter.onSuccess(10 * SECOND);
+        assertThat(limiter.getLimit()).isLessThan(beforeSlow);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+            limiter.onDropped();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void slowCompletionsShrinkAtMostOncePerRttWindow() {
+        long[] now = {0};
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 0, 2.0, 0.9, () -> now[0]);
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        limiter.onSuccess(SECOND); // 평균 지연 1초
+
+        // 같은 창 안에 느린 응답이 몰려도 한 번만 줄인다 (0.9^8이 아니라 0.9)
+        for (int i = 0; i < 8; i++) {
+            assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        }
+        for (int i = 0; i < 8; i++) {
+            now[0] += TimeUnit.MILLISECONDS.toNanos(10);
+            limiter.onSuccess(5 * SECOND);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(9);
+
+        // 평균 지연만큼 지나면 다시 줄일 수 있다
+        now[0] += 10 * SECOND;
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        limiter.onSuccess(20 * SECOND);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void queuesUpToMaxQueueThenRejectsImmediately() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1, 2.0, 0.9);
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> limiter.tryAcquire(Duration.ofSeconds(5)));
+        while (limiter.getQueued() == 0) Thread.onSpinWait();
+        // 대기열이 가득 차면 기다리지 않고 거절
+        long started = System.nanoTime();
+        assertThat(limiter.tryAcquire(Duration.ofSeconds(5))).isFalse();
+        assertThat(System.nanoTime() - started).isLessThan(SECOND);
+        assertThat(limiter.available()).isZero();
+
+        limiter.onIgnored();
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire(Duration.ofMillis(10))).isFalse();
+    }
+}
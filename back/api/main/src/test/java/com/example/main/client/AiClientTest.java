@@ -0,0 +1,135 @@
+package com.example.main.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.main.dto.AiGenerateResponse;
+import com.example.main.dto.GenerationInput;
+import com.example.main.dto.StoredFile;
+import com.example.main.service.UploadService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AiClientTest {
+    @TempDir
+    static Path dir;
+
+    // AI 서버 대역: 받은 요청을 기록하고 고정 응답을 돌려준다
+    private static final HttpServer aiServer;
+    private static final AtomicReference<String> lastContentType = new AtomicReference<>();
+    private static final AtomicReference<String> lastBody = new AtomicReference<>();
+
+    static {
+        try {
+            aiServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        aiServer.createContext("/generate", exchange -> {
+            lastContentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1));
+            byte[] response = "{\"content\":\"요약\",\"quiz\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        // 스트리밍 대역: NDJSON 줄을 하나씩 flush하며 보낸다. 제목이 "rate-limited"면 도중에 429 error 이벤트로 끝낸다
+        aiServer.createContext("/generate/stream", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                List<String> lines = body.contains("\"title\":\"rate-limited\"")
+                        ? List.of("{\"type\":\"summary\",\"delta\":\"## \"}",
+                                  "{\"type\":\"error\",\"status\":429,\"error\":\"rate limited\",\"retryAfter\":7}")
+                        : List.of("{\"type\":\"summary\",\"delta\":\"## 운영체제\"}",
+                                  "{\"type\":\"summary\",\"delta\":\" 핵심 요약\\n\"}",
+                                  "{\"type\":\"result\",\"content\":\"## 운영체제 핵심 요약\",\"quiz\":[]}");
+                for (String line : lines) {
+                    out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            }
+        });
+        aiServer.start();
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("upload.dir", () -> dir.toString());
+        registry.add("ai.url", () -> "http://127.0.0.1:" + aiServer.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        aiServer.stop(0);
+    }
+
+    @Autowired
+    private AiClient aiClient;
+    @Autowired
+    private UploadService uploadService;
+
+    @Test
+    void generateStreamsLocalFilesAsMultipartParts() throws Exception {
+        byte[] image = "fake-png-bytes-for-ai".getBytes(StandardCharsets.US_ASCII);
+        List<StoredFile> stored = uploadService.storeAll(List.of(
+                new MockMultipartFile("images", "page.png", "image/png", image)));
+        GenerationInput input = new GenerationInput(1L, "운영체제", List.of("os"), "설명", null,
+                List.of(stored.get(0).url(), "https://example.com/remote.png"), null);
+
+        AiGenerateResponse response = aiClient.generate(input);
+
+        assertThat(response.content()).isEqualTo("요약");
+        assertThat(lastContentType.get()).startsWith("multipart/form-data");
+        String body = lastBody.get();
+        assertThat(body).contains("name=\"images\"", "Content-Type: image/png", "fake-png-bytes-for-ai");
+        // 로컬 파일은 파트로 보내고, 외부 URL만 meta에 남겨 AI 서버가 내려받게 한다
+        assertThat(body).contains("name=\"meta\"", "\"imageUrls\":[\"https://example.com/remote.png\"]");
+        assertThat(body).doesNotContain("\"imageUrls\":[\"/uploads/");
+    }
+
+    @Test
+    void generateStreamRelaysSummaryDeltasAndReturnsResult() {
+        GenerationInput input = new GenerationInput(2L, "운영체제", List.of(), "설명", null,
+                List.of("https://example.com/remote.png"), null);
+        List<String> deltas = new ArrayList<>();
+
+        AiGenerateResponse response = aiClient.generateStream(input, deltas::add);
+
+        assertThat(deltas).containsExactly("## 운영체제", " 핵심 요약\n");
+        assertThat(response.content()).isEqualTo("## 운영체제 핵심 요약");
+        assertThat(response.quizOrEmpty()).isEmpty();
+    }
+
+    @Test
+    void generateStreamMapsRateLimitErrorEventToUnavailable() {
+        GenerationInput input = new GenerationInput(3L, "rate-limited", List.of(), "설명", null,
+                List.of("https://example.com/remote.png"), null);
+
+        assertThatThrownBy(() -> aiClient.generateStream(input, delta -> { }))
+                .isInstanceOf(AiUnavailableException.class)
+                .satisfies(e -> assertThat(((AiUnavailableException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(7)));
+    }
+}
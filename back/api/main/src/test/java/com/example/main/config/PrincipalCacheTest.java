@@ -0,0 +1,76 @@
+package com.example.main.config;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.main.entity.User;
+import com.example.main.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PrincipalCacheTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private UserRepository userRepository;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String signupJson = "{\"username\":\"cacheuser\",\"email\":\"cache@ssu.ac.kr\",\"password\":\"12345678\"}";
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(signupJson));
+        String loginJson = "{\"username\":\"cacheuser\",\"password\":\"12345678\"}";
+        String response = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginJson))
+                .andReturn().getResponse().getContentAsString();
+        token = JsonPath.read(response, "$.token");
+        principalCache.evictAll();
+    }
+
+    @Test
+    void repeatedRequestsHitTheCache() throws Exception {
+        long hitsBefore = principalCache.stats().hitCount();
+        long missesBefore = principalCache.stats().missCount();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/notes/public")
+                    .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        assertThat(principalCache.stats().missCount() - missesBefore).isEqualTo(1);
+        assertThat(principalCache.stats().hitCount() - hitsBefore).isEqualTo(2);
+    }
+
+    @Test
+    void updatingUserEvictsCachedPrincipal() throws Exception {
+        mockMvc.perform(get("/api/notes/public")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        User user = userRepository.findByUsername("cacheuser").orElseThrow();
+        user.setRole(User.Role.ADMIN);
+        userRepository.save(user);
+
+        long missesBefore = principalCache.stats().missCount();
+        mockMvc.perform(get("/api/notes/public")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat(principalCache.stats().missCount() - missesBefore).isEqualTo(1);
+
+        user.setRole(User.Role.USER);
+        userRepository.save(user);
+    }
+}
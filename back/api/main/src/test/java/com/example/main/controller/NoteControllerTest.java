@@ -7,9 +7,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.example.main.entity.Note;
+import com.example.main.entity.User;
+import com.example.main.repository.NoteRepository;
+import com.example.main.repository.UserRepository;
+import com.example.main.service.GenerationEvent;
+import com.example.main.service.GenerationStreamHub;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -20,6 +32,12 @@ class NoteControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private GenerationStreamHub generationStreamHub;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private UserRepository userRepository;
     private String token;
 
     @BeforeEach
@@ -50,6 +68,104 @@ class NoteControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void noteAndQuizReadsAnswerNotModifiedForCurrentVersion() throws Exception {
+        // 생성 작업 없이, 노트가 없는 새 사용자로 저장해 워커가 버전을 바꾸지 않게 한다
+        User owner = userRepository.save(User.builder()
+                .username("etaguser-" + System.nanoTime())
+                .email("etag-" + System.nanoTime() + "@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+        Note note = noteRepository.save(Note.builder()
+                .user(owner)
+                .title("조건부")
+                .category("3-2")
+                .generationStatus(Note.GenerationStatus.DONE)
+                .build());
+
+        String etag = mockMvc.perform(get("/api/notes/" + note.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"note-" + note.getId());
+
+        mockMvc.perform(get("/api/notes/" + note.getId())
+                .header("Authorization", "Bearer " + token)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // 복습하면 버전이 바뀐다
+        mockMvc.perform(patch("/api/notes/" + note.getId() + "/review")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/" + note.getId())
+                .header("Authorization", "Bearer " + token)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastReviewedDate").exists());
+
+        String quizEtag = mockMvc.perform(get("/api/notes/" + note.getId() + "/quiz")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/notes/" + note.getId() + "/quiz")
+                .header("Authorization", "Bearer " + token)
+                .header(HttpHeaders.IF_NONE_MATCH, quizEtag))
+                .andExpect(status().isNotModified());
+
+        String listEtag = mockMvc.perform(get("/api/notes/user/" + note.getUser().getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/notes/user/" + note.getUser().getId())
+                .header("Authorization", "Bearer " + token)
+                .header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void listsReturnSummariesWithRequestedFieldsOnly() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .username("fieldsuser-" + System.nanoTime())
+                .email("fields-" + System.nanoTime() + "@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+        noteRepository.save(Note.builder()
+                .user(owner)
+                .title("필드")
+                .category("3-2")
+                .content("# 긴 요약 본문")
+                .generationStatus(Note.GenerationStatus.DONE)
+                .build());
+
+        mockMvc.perform(get("/api/notes/user/" + owner.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("필드"))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[0].reviewHistory").doesNotExist());
+
+        mockMvc.perform(get("/api/notes/user/" + owner.getId())
+                .param("fields", "title,category")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].title").value("필드"))
+                .andExpect(jsonPath("$[0].category").value("3-2"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+
+        mockMvc.perform(get("/api/notes/user/" + owner.getId())
+                .param("fields", "title,content")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createNote() throws Exception {
         String noteJson = "{\"userId\":1,\"title\":\"테스트\",\"category\":\"3-2\",\"keywords\":[\"test\"],\"description\":\"설명\",\"imageUrls\":[],\"pdfUrl\":null,\"isPublic\":true}";
@@ -59,4 +175,94 @@ class NoteControllerTest {
                 .content(noteJson))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createNoteQueuesGeneration() throws Exception {
+        String noteJson = "{\"userId\":1,\"title\":\"테스트\",\"category\":\"3-2\",\"keywords\":[\"test\"],\"description\":\"설명\",\"imageUrls\":[],\"pdfUrl\":null,\"isPublic\":true}";
+        String response = mockMvc.perform(post("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + token)
+                .content(noteJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.generationStatus").exists())
+                .andReturn().getResponse().getContentAsString();
+        Integer noteId = JsonPath.read(response, "$.id");
+
+        mockMvc.perform(get("/api/notes/" + noteId + "/generation")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.noteId").value(noteId))
+                .andExpect(jsonPath("$.jobType").value("NOTE"));
+    }
+
+    @Test
+    void getPublicFeedPagesWithCursor() throws Exception {
+        String title = "피드테스트-" + System.nanoTime();
+        String noteJson = "{\"userId\":1,\"title\":\"" + title + "\",\"category\":\"3-2\",\"keywords\":[\"feed\"],\"description\":\"설명\",\"imageUrls\":[],\"pdfUrl\":null,\"isPublic\":true}";
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/notes")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Authorization", "Bearer " + token)
+                    .content(noteJson))
+                    .andExpect(status().isOk());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/notes/public/feed")
+                .param("title", title)
+                .param("size", "2")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].content").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(get("/api/notes/public/feed")
+                .param("title", title)
+                .param("size", "2")
+                .param("cursor", cursor)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+
+        mockMvc.perform(get("/api/notes/public/feed")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void generationStreamRelaysSummaryAndQuizEvents() throws Exception {
+        String noteJson = "{\"userId\":1,\"title\":\"스트림\",\"category\":\"3-2\",\"keywords\":[],\"description\":\"설명\",\"imageUrls\":[],\"pdfUrl\":null,\"isPublic\":true}";
+        String response = mockMvc.perform(post("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + token)
+                .content(noteJson))
+                .andReturn().getResponse().getContentAsString();
+        Long noteId = ((Integer) JsonPath.read(response, "$.id")).longValue();
+
+        MvcResult stream = mockMvc.perform(get("/api/notes/" + noteId + "/generation/stream")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // 워커가 AI 스트림을 받는 것처럼 흉내낸다
+        generationStreamHub.started(noteId);
+        generationStreamHub.summaryDelta(noteId, "## 스트림");
+        generationStreamHub.summaryDelta(noteId, " 요약");
+        generationStreamHub.onGenerationEvent(GenerationEvent.done(noteId, 3));
+
+        mockMvc.perform(asyncDispatch(stream)).andExpect(status().isOk());
+        String events = stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(events).contains("event:snapshot", "event:summary", "## 스트림", " 요약",
+                "event:quiz", "\"count\":3", "event:done", "\"status\":\"DONE\"");
+        assertThat(events.indexOf("event:summary")).isLessThan(events.indexOf("event:quiz"));
+    }
+
+    @Test
+    void generationStreamOfMissingNoteIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/notes/999999/generation/stream")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.main.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.main.dto.StoredFile;
+import com.example.main.service.UploadService;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UploadFileControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UploadService uploadService;
+
+    private StoredFile storePdf(byte[] content) throws Exception {
+        return uploadService.store(new MockMultipartFile("pdf", "lecture.pdf", "application/pdf", content));
+    }
+
+    @Test
+    void servesWithImmutableCachingAndConditionalGet() throws Exception {
+        byte[] content = new byte[100_000];
+        ThreadLocalRandom.current().nextBytes(content);
+        StoredFile stored = storePdf(content);
+
+        byte[] body = mockMvc.perform(get(stored.url()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + stored.sha256() + "\""))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().contentType("application/pdf"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).isEqualTo(content);
+
+        mockMvc.perform(get(stored.url()).header("If-None-Match", "\"" + stored.sha256() + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void servesSingleByteRanges() throws Exception {
+        byte[] content = new byte[1000];
+        ThreadLocalRandom.current().nextBytes(content);
+        StoredFile stored = storePdf(content);
+
+        byte[] body = mockMvc.perform(get(stored.url()).header("Range", "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-199/1000"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+
+        mockMvc.perform(get(stored.url()).header("Range", "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 990-999/1000"));
+
+        mockMvc.perform(get(stored.url()).header("Range", "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */1000"));
+
+        // If-Range가 다르면 전체 응답
+        mockMvc.perform(get(stored.url()).header("Range", "bytes=0-9").header("If-Range", "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsMissingAndTraversalPaths() throws Exception {
+        mockMvc.perform(get("/uploads/00/00/" + "0".repeat(64) + ".png"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/%2e%2e/build.gradle"))
+                .andExpect(status().is4xxClientError());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.main.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+class NoteFacetIndexTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static NoteSearchDocument doc(long id, boolean isPublic, String title, List<String> keywords,
+                                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new NoteSearchDocument(id, 1L, isPublic, title, "3-2", keywords, null, null, createdAt, null, updatedAt);
+    }
+
+    @Test
+    void countsFollowPublishUpdateAndDelete() {
+        NoteFacetIndex index = new NoteFacetIndex(24);
+        index.index(doc(1, true, "운영체제", List.of("os", "스케줄링"), T0, T0));
+        index.index(doc(2, true, "운영체제", List.of("os", "os"), T0, T0));
+        index.index(doc(3, false, "자료구조", List.of("tree"), T0, T0));
+
+        assertThat(index.top(NoteFacetIndex.Facet.TITLE, 10, T0))
+                .extracting(NoteFacetIndex.FacetCount::value, NoteFacetIndex.FacetCount::count)
+                .containsExactly(tuple("운영체제", 2));
+        assertThat(index.top(NoteFacetIndex.Facet.KEYWORD, 1, T0))
+                .extracting(NoteFacetIndex.FacetCount::value).containsExactly("os");
+
+        // 공개 전환, 비공개 전환, 키워드 변경, 삭제
+        index.index(doc(3, true, "자료구조", List.of("tree"), T0, T0.plusMinutes(1)));
+        index.index(doc(1, false, "운영체제", List.of("os", "스케줄링"), T0, T0.plusMinutes(1)));
+        index.index(doc(2, true, "운영체제", List.of("paging"), T0, T0.plusMinutes(1)));
+        index.remove(3L);
+
+        assertThat(index.top(NoteFacetIndex.Facet.TITLE, 10, T0))
+                .extracting(NoteFacetIndex.FacetCount::value, NoteFacetIndex.FacetCount::count)
+                .containsExactly(tuple("운영체제", 1));
+        assertThat(index.top(NoteFacetIndex.Facet.KEYWORD, 10, T0))
+                .extracting(NoteFacetIndex.FacetCount::value).containsExactly("paging");
+        assertThat(index.top(NoteFacetIndex.Facet.CATEGORY, 10, T0))
+                .extracting(NoteFacetIndex.FacetCount::count).containsExactly(1);
+    }
+
+    @Test
+    void trendingDecaysWithNoteAge() {
+        NoteFacetIndex index = new NoteFacetIndex(24);
+        LocalDateTime now = T0.plusDays(10);
+        // 오래된 노트 3개 vs 최근 노트 1개
+        for (long id = 1; id <= 3; id++) {
+            index.index(doc(id, true, "오래된 과목", List.of("old"), T0, T0));
+        }
+        index.index(doc(4, true, "새 과목", List.of("new"), now.minusDays(1), now.minusDays(1)));
+
+        assertThat(index.top(NoteFacetIndex.Facet.KEYWORD, 10, now))
+                .extracting(NoteFacetIndex.FacetCount::value).containsExactly("old", "new");
+        List<NoteFacetIndex.FacetCount> trending = index.trending(NoteFacetIndex.Facet.KEYWORD, 10, now);
+        assertThat(trending).extracting(NoteFacetIndex.FacetCount::value).containsExactly("new", "old");
+        // 반감기 하루: 1일 전 노트 1개 = 0.5, 10일 전 노트 3개 = 3 / 1024
+        assertThat(trending.get(0).score()).isCloseTo(0.5, within(1e-9));
+        assertThat(trending.get(1).score()).isCloseTo(3.0 / 1024, within(1e-9));
+    }
+
+    @Test
+    void trendingCountsFromPublishTimeNotCreation() {
+        NoteFacetIndex index = new NoteFacetIndex(24);
+        LocalDateTime now = T0.plusDays(90);
+        // 석 달 전에 만들었다가 오늘 공개한 노트 vs 열흘 전에 만들어 바로 공개한 노트
+        index.index(new NoteSearchDocument(1L, 1L, true, "늦게 공개", "3-2", List.of("late"), null, null,
+                T0, now, now));
+        index.index(new NoteSearchDocument(2L, 1L, true, "바로 공개", "3-2", List.of("early"), null, null,
+                now.minusDays(10), now.minusDays(10), now.minusDays(10)));
+
+        List<NoteFacetIndex.FacetCount> trending = index.trending(NoteFacetIndex.Facet.KEYWORD, 10, now);
+        assertThat(trending).extracting(NoteFacetIndex.FacetCount::value).containsExactly("late", "early");
+        assertThat(trending.get(0).score()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void rebuildDoesNotResurrectDeletedOrOverwriteNewerNotes() {
+        NoteFacetIndex index = new NoteFacetIndex(24);
+        index.beginRebuild();
+        index.index(doc(1, true, "fresh", List.of(), T0, T0.plusHours(1)));
+        index.remove(2L);
+        index.indexIfNewer(doc(1, true, "stale", List.of(), T0, T0));
+        index.indexIfNewer(doc(2, true, "deleted", List.of(), T0, T0));
+        index.endRebuild();
+
+        assertThat(index.top(NoteFacetIndex.Facet.TITLE, 10, T0))
+                .extracting(NoteFacetIndex.FacetCount::value).containsExactly("fresh");
+    }
+}
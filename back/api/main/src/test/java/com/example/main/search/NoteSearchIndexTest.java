@@ -0,0 +1,87 @@
+package com.example.main.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteSearchIndexTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static NoteSearchDocument doc(long id, long owner, boolean isPublic, String title, String content) {
+        return new NoteSearchDocument(id, owner, isPublic, title, null, List.of(), null, content, T0, T0, T0);
+    }
+
+    @Test
+    void ranksTitleMatchesAboveContentMatches() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.index(doc(1, 1, true, "자료구조 정리", "스케줄링 알고리즘은 운영체제 내용"));
+        index.index(doc(2, 1, true, "운영체제 스케줄링", "프로세스와 스레드"));
+        index.index(doc(3, 1, true, "Network", "TCP handshake"));
+
+        SearchHits hits = index.search("스케줄링", null, 0, 10);
+        assertThat(hits.noteIds()).containsExactly(2L, 1L);
+        assertThat(index.search("tcp", null, 0, 10).noteIds()).containsExactly(3L);
+    }
+
+    @Test
+    void matchesKoreanSubwordsAndHonorsVisibility() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.index(doc(1, 10, false, "데이터베이스 정규화", null));
+        index.index(doc(2, 20, true, "데이터베이스 인덱스", null));
+
+        // 조사가 붙은 질의도 바이그램으로 매칭
+        assertThat(index.search("데이터베이스를", null, 0, 10).noteIds()).containsExactly(2L);
+        assertThat(index.search("데이터베이스", 10L, 0, 10).noteIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("정규화", 20L, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void updateAndDeleteReplacePreviousPostings() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.index(doc(1, 1, true, "old title", null));
+        index.index(doc(1, 1, true, "new title", null));
+        assertThat(index.search("old", null, 0, 10).total()).isZero();
+        assertThat(index.search("new", null, 0, 10).noteIds()).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("new", null, 0, 10).total()).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void rebuildDoesNotResurrectDeletedOrOverwriteNewerNotes() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.beginRebuild();
+        index.index(new NoteSearchDocument(1L, 1L, true, "fresh", null, List.of(), null, null, T0, T0, T0.plusHours(1)));
+        index.remove(2L);
+        index.indexIfNewer(doc(1, 1, true, "stale", null));
+        index.indexIfNewer(doc(2, 1, true, "deleted", null));
+        index.endRebuild();
+
+        assertThat(index.search("fresh", null, 0, 10).noteIds()).containsExactly(1L);
+        assertThat(index.search("stale", null, 0, 10).total()).isZero();
+        assertThat(index.search("deleted", null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void paginatesAndSurvivesCompaction() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        for (long id = 1; id <= 3000; id++) {
+            index.index(doc(id, 1, true, "algorithm note " + id, "sorting graph dynamic programming"));
+        }
+        // 반복 수정으로 죽은 포스팅을 쌓아 압축을 유발
+        for (int round = 0; round < 3; round++) {
+            for (long id = 1; id <= 3000; id++) {
+                index.index(doc(id, 1, true, "algorithm note " + id, "sorting graph dynamic programming"));
+            }
+        }
+        SearchHits first = index.search("algorithm", null, 0, 20);
+        SearchHits second = index.search("algorithm", null, 20, 20);
+        assertThat(first.total()).isEqualTo(3000);
+        assertThat(first.noteIds()).hasSize(20).doesNotContainAnyElementsOf(second.noteIds());
+        assertThat(index.search("note 1234", null, 0, 1).noteIds()).containsExactly(1234L);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.main.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.main.dto.AiGenerateResponse;
+import com.example.main.dto.AiQuiz;
+import com.example.main.dto.GenerationInput;
+import com.example.main.entity.AiResult;
+import com.example.main.entity.GenerationJob;
+import com.example.main.repository.AiResultRepository;
+
+import java.text.Normalizer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AiResultCacheTest {
+    private static final String SHA = "ab".repeat(32);
+    private static final String PDF = "/uploads/ab/ab/" + SHA + ".pdf";
+
+    @Autowired
+    private AiResultCache aiResultCache;
+    @Autowired
+    private AiResultRepository aiResultRepository;
+
+    private static GenerationInput input(long noteId, String description, List<String> imageUrls, String pdfUrl) {
+        return new GenerationInput(noteId, "제목" + noteId, List.of(), description, null, imageUrls, pdfUrl);
+    }
+
+    @Test
+    void keyIgnoresNoteIdentityWhitespaceAndUnicodeForm() {
+        String key = aiResultCache.keyOf(GenerationJob.Type.NOTE, input(1L, "운영체제  스케줄링\n", List.of(), PDF));
+        String nfd = Normalizer.normalize("운영체제 스케줄링", Normalizer.Form.NFD);
+
+        assertThat(aiResultCache.keyOf(GenerationJob.Type.NOTE, input(2L, " " + nfd, List.of(), PDF))).isEqualTo(key);
+        assertThat(aiResultCache.keyOf(GenerationJob.Type.QUIZ, input(1L, "운영체제 스케줄링", List.of(), PDF))).isNotEqualTo(key);
+        assertThat(aiResultCache.keyOf(GenerationJob.Type.NOTE, input(1L, "운영체제 스케줄링", List.of(), null))).isNotEqualTo(key);
+        // AI 입력용 파생 이미지는 원본 blob과 같은 키
+        assertThat(aiResultCache.keyOf(GenerationJob.Type.NOTE, input(1L, "", List.of("/uploads/ab/ab/" + SHA + ".png"), null)))
+                .isEqualTo(aiResultCache.keyOf(GenerationJob.Type.NOTE, input(1L, "", List.of("/uploads/derived/" + SHA + "/ai.jpg"), null)));
+    }
+
+    @Test
+    void storesValidResultsInMemoryAndDatabase() {
+        String key = aiResultCache.keyOf(GenerationJob.Type.NOTE, input(3L, "캐시 테스트", List.of(), PDF));
+        AiGenerateResponse response = new AiGenerateResponse("## 요약",
+                List.of(new AiQuiz("문제", List.of("a", "b", "c", "d", "e"), 1, "해설")));
+        assertThat(aiResultCache.get(key)).isNull();
+
+        aiResultCache.put(key, GenerationJob.Type.NOTE, response);
+        assertThat(aiResultCache.get(key)).isEqualTo(response);
+
+        // 메모리에서 밀려나도(다른 노드 포함) DB에서 읽는다
+        aiResultCache.evictAll();
+        assertThat(aiResultCache.get(key)).isEqualTo(response);
+        assertThat(aiResultRepository.findById(key).orElseThrow().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void regeneratedResultOverwritesStoredRow() {
+        String key = aiResultCache.keyOf(GenerationJob.Type.NOTE, input(5L, "재생성 테스트", List.of(), PDF));
+        AiQuiz quiz = new AiQuiz("문제", List.of("a", "b", "c", "d", "e"), 1, "해설");
+        aiResultCache.put(key, GenerationJob.Type.NOTE, new AiGenerateResponse("## 이전 요약", List.of(quiz)));
+        aiResultCache.get(key);
+        aiResultCache.evictAll();
+        aiResultCache.get(key); // DB 적중 1회
+
+        AiGenerateResponse regenerated = new AiGenerateResponse("## 새 요약", List.of(quiz, quiz));
+        aiResultCache.put(key, GenerationJob.Type.NOTE, regenerated);
+
+        AiResult stored = aiResultRepository.findById(key).orElseThrow();
+        assertThat(stored.getContent()).isEqualTo("## 새 요약");
+        assertThat(stored.getHitCount()).isEqualTo(1);
+        assertThat(stored.getCreatedAt()).isNotNull();
+        assertThat(stored.getLastHitAt()).isNotNull();
+        // 메모리에서 밀려난 뒤(다른 노드, 재시작)에도 새 결과
+        aiResultCache.evictAll();
+        assertThat(aiResultCache.get(key)).isEqualTo(regenerated);
+    }
+
+    @Test
+    void doesNotCacheEmptyResults() {
+        String key = aiResultCache.keyOf(GenerationJob.Type.QUIZ, input(4L, "빈 퀴즈", List.of(), PDF));
+
+        aiResultCache.put(key, GenerationJob.Type.QUIZ, new AiGenerateResponse(null, List.of()));
+
+        assertThat(aiResultCache.get(key)).isNull();
+        assertThat(aiResultRepository.existsById(key)).isFalse();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.main.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.entity.GenerationJob;
+import com.example.main.entity.Note;
+import com.example.main.entity.User;
+import com.example.main.repository.GenerationJobRepository;
+import com.example.main.repository.NoteRepository;
+import com.example.main.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class GenerationJobServiceTest {
+    @Autowired
+    private GenerationJobService generationJobService;
+    @Autowired
+    private GenerationJobRepository jobRepository;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void staleJobsAreRetriedOrDeadLettered() {
+        User user = userRepository.save(User.builder()
+                .username("staleuser-" + System.nanoTime())
+                .email("stale-" + System.nanoTime() + "@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+        Note exhausted = saveRunningNote(user);
+        Note retryable = saveRunningNote(user);
+        // 노드를 죽이는 입력처럼 fail()에 닿지 못하고 잠금만 만료된 작업들
+        GenerationJob dead = jobRepository.save(staleJob(exhausted.getId(), 5));
+        GenerationJob retry = jobRepository.save(staleJob(retryable.getId(), 1));
+
+        assertThat(generationJobService.releaseStaleJobs()).isGreaterThanOrEqualTo(2);
+
+        assertThat(dead.getStatus()).isEqualTo(GenerationJob.Status.DEAD);
+        assertThat(dead.getLockedBy()).isNull();
+        assertThat(retry.getStatus()).isEqualTo(GenerationJob.Status.PENDING);
+        assertThat(retry.getNextRunAt()).isAfter(LocalDateTime.now());
+        assertThat(noteRepository.findGenerationStatuses(List.of(exhausted.getId(), retryable.getId())))
+                .extracting(row -> row[1])
+                .containsExactlyInAnyOrder(Note.GenerationStatus.FAILED, Note.GenerationStatus.PENDING);
+    }
+
+    private Note saveRunningNote(User user) {
+        return noteRepository.save(Note.builder()
+                .user(user)
+                .title("잠금 만료")
+                .category("3-2")
+                .generationStatus(Note.GenerationStatus.RUNNING)
+                .build());
+    }
+
+    private static GenerationJob staleJob(Long noteId, int attempts) {
+        return GenerationJob.builder()
+                .noteId(noteId)
+                .type(GenerationJob.Type.NOTE)
+                .status(GenerationJob.Status.RUNNING)
+                .attempts(attempts)
+                .maxAttempts(5)
+                .nextRunAt(LocalDateTime.now().minusDays(1))
+                .lockedBy("dead-node")
+                .lockedAt(LocalDateTime.now().minusDays(1))
+                .build();
+    }
+}
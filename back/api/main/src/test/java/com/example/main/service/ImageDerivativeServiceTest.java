@@ -0,0 +1,117 @@
+package com.example.main.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.main.dto.ImageVariants;
+import com.example.main.dto.StoredFile;
+import com.example.main.util.ExifOrientation;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ImageDerivativeServiceTest {
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("upload.dir", () -> dir.toString());
+    }
+
+    @Autowired
+    private UploadService uploadService;
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    private static byte[] image(int width, int height, String format) throws Exception {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+
+    // SOI 바로 뒤에 Orientation 태그 하나만 있는 APP1(Exif) 세그먼트를 끼워 넣는다
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        int length = 2 + 6 + tiff.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xE1, (byte) (length >> 8), (byte) length,
+                'E', 'x', 'i', 'f', 0, 0});
+        out.writeBytes(tiff);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    @Test
+    void generatesBoundedVariantsAndAppliesExifRotation() throws Exception {
+        byte[] photo = withOrientation(image(4000, 3000, "jpg"), 6);
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("images", "photo.jpg", "image/jpeg", photo),
+                new MockMultipartFile("images", "small.png", "image/png", image(200, 100, "png")));
+        List<StoredFile> stored = uploadService.storeAll(files);
+        assertThat(ExifOrientation.read(uploadService.resolve(stored.get(0).url()))).isEqualTo(6);
+
+        List<ImageVariants> variants = imageDerivativeService.generateAll(stored);
+
+        ImageVariants photoVariants = variants.get(0);
+        assertThat(photoVariants.original()).isEqualTo(stored.get(0).url());
+        // 90도 회전이 반영되어 세로가 긴 변
+        assertDimensions(photoVariants.ai(), 1176, 1568);
+        assertDimensions(photoVariants.display(), 960, 1280);
+        assertDimensions(photoVariants.thumb(), 240, 320);
+        // 작은 이미지는 확대하지 않는다
+        assertDimensions(variants.get(1).display(), 200, 100);
+        assertThat(imageDerivativeService.aiInputUrl(stored.get(0).url())).isEqualTo(photoVariants.ai());
+    }
+
+    @Test
+    void thumbnailUrlUsesRecordedVariantsWithoutDisk() throws Exception {
+        List<StoredFile> stored = uploadService.storeAll(List.of(
+                new MockMultipartFile("images", "card.png", "image/png", image(640, 480, "png"))));
+        ImageVariants variants = imageDerivativeService.generateAll(stored).get(0);
+
+        // 생성할 때 기록했으므로 목록 URL은 디스크를 보지 않는다
+        Files.delete(uploadService.resolve(variants.thumb()));
+
+        assertThat(imageDerivativeService.thumbnailUrl(stored.get(0).url())).isEqualTo(variants.thumb());
+    }
+
+    @Test
+    void fallsBackToOriginalWhenImageCannotBeDecoded() throws Exception {
+        List<StoredFile> stored = uploadService.storeAll(List.of(
+                new MockMultipartFile("images", "broken.jpg", "image/jpeg", new byte[]{1, 2, 3, 4})));
+
+        ImageVariants variants = imageDerivativeService.generateAll(stored).get(0);
+
+        assertThat(variants).isEqualTo(ImageVariants.originalOnly(stored.get(0).url()));
+        assertThat(imageDerivativeService.aiInputUrl(stored.get(0).url())).isEqualTo(stored.get(0).url());
+    }
+
+    private void assertDimensions(String url, int width, int height) throws Exception {
+        Path path = uploadService.resolve(url);
+        assertThat(Files.exists(path)).isTrue();
+        BufferedImage img = ImageIO.read(path.toFile());
+        assertThat(img.getWidth()).isEqualTo(width);
+        assertThat(img.getHeight()).isEqualTo(height);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.main.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.dto.NoteDto;
+import com.example.main.dto.NoteSummary;
+import com.example.main.entity.Note;
+import com.example.main.entity.User;
+import com.example.main.repository.NoteRepository;
+import com.example.main.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class NoteServiceTest {
+    @Autowired
+    private NoteService noteService;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getNotesByUserUsesConstantQueries() {
+        User user = userRepository.save(User.builder()
+                .username("notelistuser")
+                .email("notelist@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+        for (int i = 0; i < 20; i++) {
+            noteRepository.save(Note.builder()
+                    .user(user)
+                    .title("노트 " + i)
+                    .category("3-2")
+                    .keywords(new ArrayList<>(List.of("k" + i, "os")))
+                    .imageUrls(new ArrayList<>(List.of("/uploads/" + i + ".png")))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<NoteSummary> notes = noteService.getNotesByUser(user.getId());
+
+        assertThat(notes).hasSize(20);
+        assertThat(notes.get(0).getKeywords()).hasSize(2);
+        assertThat(notes.get(0).getThumbnailUrl()).isEqualTo("/uploads/0.png");
+        // notes+users 조인 1 (keywords/images는 같은 행의 JSON 컬럼, 목록에는 복습 히스토리가 없다)
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keywordFeedFollowsKeywordIndex() {
+        User user = userRepository.save(User.builder()
+                .username("notekeyworduser")
+                .email("notekeyword@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+        String keyword = "kw-" + System.nanoTime();
+        NoteDto note = noteService.createNote(user.getId(), "키워드", "3-2", List.of(keyword, keyword, "os"),
+                "설명", List.of("/uploads/a.png"), null, true);
+        assertThat(noteService.getPublicFeed(null, 10, null, null, keyword).getItems())
+                .extracting(NoteSummary::getId).containsExactly(note.getId());
+
+        NoteDto update = new NoteDto();
+        update.setKeywords(List.of("db"));
+        update.setPublic(true);
+        noteService.updateNote(note.getId(), update);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(noteService.getPublicFeed(null, 10, null, null, keyword).getItems()).isEmpty();
+        Note reloaded = noteRepository.findById(note.getId()).orElseThrow();
+        assertThat(reloaded.getKeywords()).containsExactly("db");
+        assertThat(reloaded.getImageUrls()).containsExactly("/uploads/a.png");
+    }
+}
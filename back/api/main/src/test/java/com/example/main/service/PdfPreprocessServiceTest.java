@@ -0,0 +1,119 @@
+package com.example.main.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.main.dto.PreparedPdf;
+import com.example.main.dto.StoredFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PdfPreprocessServiceTest {
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("upload.dir", () -> dir.toString());
+    }
+
+    @Autowired
+    private UploadService uploadService;
+    @Autowired
+    private PdfPreprocessService pdfPreprocessService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 1쪽: 텍스트 레이어가 있는 슬라이드, 2쪽: 텍스트 없는 스캔본
+    private static byte[] slidesAndScan() throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            PDPage slide = new PDPage(PDRectangle.A4);
+            document.addPage(slide);
+            try (PDPageContentStream content = new PDPageContentStream(document, slide)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 14);
+                content.newLineAtOffset(50, 700);
+                content.showText("Round robin scheduling assigns each process a fixed time quantum.");
+                content.endText();
+            }
+            document.addPage(new PDPage(PDRectangle.A4));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    @Test
+    void extractsTextPagesAndRendersOnlyScannedPagesOnce() throws Exception {
+        List<StoredFile> stored = uploadService.storeAll(List.of(
+                new MockMultipartFile("pdf", "lecture.pdf", "application/pdf", slidesAndScan())));
+        String url = stored.get(0).url();
+
+        PreparedPdf prepared = pdfPreprocessService.prepare(url);
+
+        assertThat(prepared.pages()).hasSize(2);
+        PreparedPdf.Page slide = prepared.pages().get(0);
+        assertThat(slide.hasImage()).isFalse();
+        assertThat(slide.text()).contains("Round robin scheduling");
+        PreparedPdf.Page scan = prepared.pages().get(1);
+        assertThat(scan.hasImage()).isTrue();
+        Path image = pdfPreprocessService.pageImage(url, scan);
+        BufferedImage rendered = ImageIO.read(image.toFile());
+        assertThat(Math.max(rendered.getWidth(), rendered.getHeight())).isLessThanOrEqualTo(1568);
+
+        // 두 번째 호출은 캐시에서: 페이지 이미지를 다시 쓰지 않는다
+        FileTime renderedAt = Files.getLastModifiedTime(image);
+        Files.setLastModifiedTime(image, FileTime.fromMillis(renderedAt.toMillis() - 60_000));
+        assertThat(pdfPreprocessService.prepare(url)).isEqualTo(prepared);
+        assertThat(Files.getLastModifiedTime(image).toMillis()).isEqualTo(renderedAt.toMillis() - 60_000);
+    }
+
+    @Test
+    void manifestRoundTripsPageImageFileNames() throws Exception {
+        List<StoredFile> stored = uploadService.storeAll(List.of(
+                new MockMultipartFile("pdf", "manifest.pdf", "application/pdf", slidesAndScan())));
+        String url = stored.get(0).url();
+        PreparedPdf prepared = pdfPreprocessService.prepare(url);
+        Path manifest = pdfPreprocessService.pageImage(url, prepared.pages().get(1)).resolveSibling("manifest.json");
+
+        PreparedPdf read = objectMapper.readValue(manifest.toFile(), PreparedPdf.class);
+
+        assertThat(read.pages()).isEqualTo(prepared.pages());
+        assertThat(read.pages().get(0).image()).isNull();
+        assertThat(read.pages().get(1).image()).isEqualTo(prepared.pages().get(1).image()).isNotIn("true", "false");
+    }
+
+    @Test
+    void returnsNullForNonBlobOrBrokenPdf() throws Exception {
+        assertThat(pdfPreprocessService.prepare("/uploads/legacy-uuid.pdf")).isNull();
+        List<StoredFile> stored = uploadService.storeAll(List.of(
+                new MockMultipartFile("pdf", "broken.pdf", "application/pdf", "not a pdf".getBytes())));
+        assertThat(pdfPreprocessService.prepare(stored.get(0).url())).isNull();
+    }
+
+    @Test
+    void visibleCharsIgnoresWhitespaceAndReplacementGlyphs() {
+        assertThat(PdfPreprocessService.visibleChars(" a b\n\t��c ")).isEqualTo(3);
+    }
+}
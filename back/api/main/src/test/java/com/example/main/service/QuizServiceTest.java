@@ -0,0 +1,71 @@
+package com.example.main.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.dto.AiQuiz;
+import com.example.main.entity.Note;
+import com.example.main.entity.User;
+import com.example.main.repository.NoteRepository;
+import com.example.main.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class QuizServiceTest {
+    @Autowired
+    private QuizService quizService;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveQuizzesBatchesInserts() {
+        User user = userRepository.save(User.builder()
+                .username("quizbatchuser")
+                .email("quizbatch@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+        Note note = noteRepository.save(Note.builder()
+                .user(user)
+                .title("배치 테스트")
+                .category("3-2")
+                .build());
+        entityManager.flush();
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        quizService.saveQuizzes(note, quizzes(5));
+        entityManager.flush();
+
+        assertThat(stats.getEntityInsertCount()).isEqualTo(5);
+        // 시퀀스 조회(최대 2) + quiz insert 배치 1 (보기는 같은 행의 JSON 컬럼)
+        // (IDENTITY + quiz_options 테이블이었을 때는 quiz 5 + quiz_options 25 = 30번 왕복)
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    private List<AiQuiz> quizzes(int count) {
+        List<AiQuiz> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(new AiQuiz("문제 " + i, List.of("1", "2", "3", "4", "5"), i % 5, "해설 " + i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.main.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.dto.DueReviewDto;
+import com.example.main.dto.ReviewTimelineDto;
+import com.example.main.entity.Note;
+import com.example.main.entity.User;
+import com.example.main.repository.NoteRepository;
+import com.example.main.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ReviewServiceTest {
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void getDueReviewsReturnsOnlyReviewDays() {
+        User user = userRepository.save(User.builder()
+                .username("reviewuser")
+                .email("review@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+        LocalDate today = LocalDate.of(2025, 3, 31);
+        for (int daysAgo : new int[]{0, 1, 2, 3, 7, 30, 31}) {
+            Note note = noteRepository.save(Note.builder()
+                    .user(user)
+                    .title(daysAgo + "일 전")
+                    .category("3-2")
+                    .build());
+            // @PrePersist가 현재 시각으로 채우므로 저장 후 덮어쓴다
+            note.setCreatedAt(today.minusDays(daysAgo).atTime(23, 30));
+            if (daysAgo == 3) note.setLastReviewedDate(today);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DueReviewDto> due = reviewService.getDueReviews(user.getId(), today);
+
+        assertThat(due).extracting(DueReviewDto::getDays).containsExactly(1, 7, 30, 3);
+        assertThat(due).extracting(DueReviewDto::getReviewStage)
+                .containsExactly("1차 복습", "3차 복습", "최종 복습", "복습 완료");
+        assertThat(due.get(3).getStage()).isEqualTo(2);
+
+        List<ReviewTimelineDto> timeline = reviewService.getTimeline(user.getId(), today);
+        assertThat(timeline).extracting(ReviewTimelineDto::getDays).containsExactly(0, 1, 2, 3, 7, 30, 31);
+    }
+}
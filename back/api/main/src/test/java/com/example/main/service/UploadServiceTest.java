@@ -0,0 +1,108 @@
+package com.example.main.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.main.dto.StoredFile;
+import com.example.main.repository.FileBlobRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "upload.blob-grace-period-ms=0")
+class UploadServiceTest {
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("upload.dir", () -> dir.toString());
+    }
+
+    @Autowired
+    private UploadService uploadService;
+    @Autowired
+    private FileBlobService fileBlobService;
+    @Autowired
+    private FileBlobRepository fileBlobRepository;
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void storeAllWritesContentAddressedFilesInOrder() throws Exception {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            files.add(new MockMultipartFile("images", "img" + i + ".PNG", "image/png", randomBytes(100_000 + i)));
+        }
+
+        List<StoredFile> stored = uploadService.storeAll(files);
+
+        assertThat(stored).hasSize(20);
+        for (int i = 0; i < 20; i++) {
+            byte[] expected = files.get(i).getBytes();
+            String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(expected));
+            assertThat(stored.get(i).sha256()).isEqualTo(sha256);
+            assertThat(stored.get(i).size()).isEqualTo(expected.length);
+            assertThat(stored.get(i).url()).isEqualTo(
+                    "/uploads/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ".png");
+            assertThat(Files.readAllBytes(uploadService.resolve(stored.get(i).url()))).isEqualTo(expected);
+        }
+        // 임시 파일이 남지 않음
+        try (Stream<Path> tmp = Files.list(dir.resolve(".tmp"))) {
+            assertThat(tmp).isEmpty();
+        }
+    }
+
+    @Test
+    void identicalContentIsStoredOnceAndRemovedWhenUnreferenced() throws Exception {
+        byte[] pdf = randomBytes(50_000);
+        StoredFile first = uploadService.store(new MockMultipartFile("pdf", "lecture.pdf", "application/pdf", pdf));
+        StoredFile second = uploadService.store(new MockMultipartFile("pdf", "copy.PDF", "application/pdf", pdf));
+        assertThat(second.url()).isEqualTo(first.url());
+        Path path = uploadService.resolve(first.url());
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertThat(files).hasSize(1);
+        }
+
+        fileBlobService.acquire(List.of(first.url()));
+        fileBlobService.acquire(List.of(second.url()));
+        fileBlobService.release(List.of(first.url()));
+        uploadService.sweepUnreferenced();
+        assertThat(path).exists();
+        assertThat(fileBlobRepository.findById(first.sha256()).orElseThrow().getRefCount()).isEqualTo(1);
+
+        fileBlobService.release(List.of(second.url()));
+        Thread.sleep(5);
+        uploadService.sweepUnreferenced();
+        assertThat(path).doesNotExist();
+        assertThat(fileBlobRepository.findById(first.sha256())).isEmpty();
+    }
+
+    @Test
+    void resolveRejectsPathsOutsideUploadDir() throws Exception {
+        assertThat(uploadService.resolve("/uploads/../secret.txt")).isNull();
+        assertThat(uploadService.resolve("/uploads/.tmp/up-1.part")).isNull();
+        assertThat(uploadService.resolve("/etc/passwd")).isNull();
+        StoredFile stored = uploadService.store(
+                new MockMultipartFile("file", "a.b/../x.sh;.jpg", "image/jpeg", randomBytes(10)));
+        assertThat(stored.url()).matches("/uploads/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.jpg");
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.main.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.main.dto.ActivityDto;
+import com.example.main.dto.NoteDto;
+import com.example.main.dto.UserStatsDto;
+import com.example.main.entity.ReviewEvent;
+import com.example.main.entity.User;
+import com.example.main.repository.ReviewEventRepository;
+import com.example.main.repository.UserRepository;
+import com.example.main.repository.UserStatsRepository;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class UserStatsServiceTest {
+    @Autowired
+    private UserStatsService userStatsService;
+    @Autowired
+    private NoteService noteService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+    @Autowired
+    private ReviewEventRepository reviewEventRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@ssu.ac.kr")
+                .password("12345678")
+                .role(User.Role.USER)
+                .build());
+    }
+
+    private NoteDto createNote(User user, String category) {
+        return noteService.createNote(user.getId(), "노트", category, List.of(), "설명", List.of(), null, false);
+    }
+
+    @Test
+    void statsFollowNoteLifecycleIncrementally() {
+        User user = newUser("statsuser");
+        LocalDate today = LocalDate.now();
+        NoteDto os = createNote(user, "3-2");
+        createNote(user, "3-2");
+        NoteDto db = createNote(user, "2-1");
+
+        noteService.updateReviewTimestamp(os.getId());
+        noteService.updateReviewTimestamp(db.getId());
+        noteService.updateReviewTimestamp(db.getId()); // 같은 날 다시 눌러도 한 번
+        noteService.unreviewNote(db.getId());
+        noteService.deleteNote(db.getId());
+
+        UserStatsDto stats = userStatsService.getStats(user.getId(), today);
+        assertThat(stats.getNoteCount()).isEqualTo(2);
+        assertThat(stats.getNotesByCategory()).containsOnly(Map.entry("3-2", 2L));
+        assertThat(stats.getReviewsByDay()).containsOnly(Map.entry(today.toString(), 1));
+        assertThat(stats.getReviewedToday()).isEqualTo(1);
+        assertThat(stats.getCurrentStreak()).isEqualTo(1);
+        assertThat(stats.getLastReviewDay()).isEqualTo(today);
+
+        // 오늘 만든 노트는 내일 1차 복습 대상
+        UserStatsDto tomorrow = userStatsService.getStats(user.getId(), today.plusDays(1));
+        assertThat(tomorrow.getDueByStage()).containsEntry("1차 복습", 2);
+        assertThat(tomorrow.getDueToday()).isEqualTo(2);
+        assertThat(tomorrow.getCurrentStreak()).isEqualTo(1);
+        // 이틀 뒤에는 연속 복습이 끊겨 있다
+        assertThat(userStatsService.getStats(user.getId(), today.plusDays(2)).getCurrentStreak()).isZero();
+    }
+
+    @Test
+    void missingStatsAreRebuiltOnceAndReadWithOneQuery() {
+        User user = newUser("statsrebuild");
+        NoteDto note = createNote(user, "4-1");
+        createNote(user, "4-1");
+        noteService.updateReviewTimestamp(note.getId());
+        UserStatsDto incremental = userStatsService.getStats(user.getId(), LocalDate.now());
+
+        // 통계 행이 없던 예전 사용자처럼 지우고 다시 읽으면 notes에서 재구성
+        userStatsRepository.deleteById(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+        UserStatsDto rebuilt = userStatsService.getStats(user.getId(), LocalDate.now());
+        assertThat(rebuilt).isEqualTo(incremental);
+        assertThat(userStatsRepository.findById(user.getId())).isPresent();
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        userStatsService.getStats(user.getId(), LocalDate.now());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reviewEventsAreAppendedAndActivityComesFromStatsRow() {
+        User user = newUser("statsactivity");
+        LocalDate today = LocalDate.now();
+        NoteDto note = createNote(user, "1-1");
+
+        noteService.updateReviewTimestamp(note.getId());
+        NoteDto unreviewed = noteService.unreviewNote(note.getId());
+        // 취소된 복습은 히스토리에서 빠진다 (업로드 시점만)
+        assertThat(unreviewed.getReviewHistory()).hasSize(1);
+        NoteDto reviewed = noteService.updateReviewTimestamp(note.getId());
+        // 업로드 시점 + 남은 복습 한 번
+        assertThat(reviewed.getReviewHistory()).hasSize(2);
+
+        noteService.deleteNote(note.getId());
+        assertThat(reviewEventRepository.findAll())
+                .filteredOn(e -> e.getUserId().equals(user.getId()))
+                .extracting(ReviewEvent::getType)
+                .containsExactly(ReviewEvent.Type.REVIEWED, ReviewEvent.Type.UNREVIEWED, ReviewEvent.Type.REVIEWED);
+
+        ActivityDto activity = userStatsService.getActivity(user.getId(), today, 365);
+        assertThat(activity.getFrom()).isEqualTo(today.minusDays(364));
+        assertThat(activity.getActiveDays()).isEqualTo(1);
+        assertThat(activity.getCurrentStreak()).isEqualTo(1);
+        byte[] bits = Base64.getDecoder().decode(activity.getBitmap());
+        assertThat(bits[364 / 8] & (1 << (364 % 8))).isNotZero();
+
+        // 재구성해도 이벤트 로그에서 같은 결과
+        userStatsRepository.deleteById(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(userStatsService.getActivity(user.getId(), today, 365)).isEqualTo(activity);
+    }
+}
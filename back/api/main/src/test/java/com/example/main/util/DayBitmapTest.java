@@ -0,0 +1,46 @@
+package com.example.main.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayBitmapTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+    @Test
+    void tracksStreaksAcrossForwardAndBackwardGrowth() {
+        DayBitmap bitmap = DayBitmap.empty()
+                .with(DAY, true, 730)
+                .with(DAY.plusDays(20), true, 730)
+                .with(DAY.minusDays(1), true, 730) // 앞쪽으로 확장
+                .with(DAY.plusDays(19), true, 730)
+                .with(DAY.plusDays(18), true, 730);
+
+        assertThat(bitmap.getStart()).isBefore(DAY);
+        assertThat(bitmap.lastActiveDay()).isEqualTo(DAY.plusDays(20));
+        assertThat(bitmap.streakEndingAt(DAY.plusDays(20))).isEqualTo(3);
+        assertThat(bitmap.streakEndingAt(DAY)).isEqualTo(2);
+        assertThat(bitmap.longestStreak()).isEqualTo(3);
+        assertThat(bitmap.countActive(DAY.minusDays(1), DAY.plusDays(20))).isEqualTo(5);
+
+        DayBitmap cleared = bitmap.with(DAY.plusDays(20), false, 730);
+        assertThat(cleared.lastActiveDay()).isEqualTo(DAY.plusDays(19));
+        assertThat(bitmap.isActive(DAY.plusDays(20))).isTrue(); // 원본은 그대로
+    }
+
+    @Test
+    void dropsDaysOutsideWindowAndSlicesLowBitFirst() {
+        DayBitmap bitmap = DayBitmap.empty()
+                .with(DAY, true, 16)
+                .with(DAY.plusDays(40), true, 16);
+        assertThat(bitmap.getBits()).hasSize(2);
+        assertThat(bitmap.isActive(DAY)).isFalse();
+        assertThat(bitmap.isActive(DAY.plusDays(40))).isTrue();
+
+        byte[] slice = bitmap.slice(DAY.plusDays(38), 9);
+        assertThat(slice).containsExactly(0b100, 0);
+        assertThat(DayBitmap.of(bitmap.getStart(), bitmap.getBits()).lastActiveDay()).isEqualTo(DAY.plusDays(40));
+    }
+}
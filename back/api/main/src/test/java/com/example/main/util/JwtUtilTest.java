@@ -0,0 +1,36 @@
+package com.example.main.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+    private static final String SECRET = "my-secret-key-local-key-1234567890";
+    private final UserDetails user = User.withUsername("jwtuser").password("x").roles("USER").build();
+
+    @Test
+    void verifyReturnsClaimsFromSingleParse() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000L);
+        JwtUtil.VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(user));
+        assertThat(token.username()).isEqualTo("jwtuser");
+        assertThat(token.expiration()).isAfter(token.issuedAt());
+    }
+
+    @Test
+    void verifyRejectsExpiredAndForeignTokens() {
+        JwtUtil expired = new JwtUtil(SECRET, -1_000L);
+        assertThatThrownBy(() -> expired.verify(expired.generateToken(user)))
+                .isInstanceOf(ExpiredJwtException.class);
+
+        JwtUtil other = new JwtUtil("another-secret-key-for-tests-0987654321", 60_000L);
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000L);
+        assertThatThrownBy(() -> jwtUtil.verify(other.generateToken(user)))
+                .isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.validateToken(other.generateToken(user), user)).isFalse();
+    }
+}
@@ -54,6 +54,22 @@ const MarkerTooltip = ({ active, payload }) => {
   return null;
 };
 
+// 활동 비트맵(base64, 하루 1비트, 낮은 비트부터)을 날짜별 칸으로 풀어낸다
+function decodeActivity(activity) {
+  const bytes = atob(activity.bitmap || '');
+  const from = new Date(`${activity.from}T00:00:00`);
+  const cells = [];
+  // 첫 주는 요일에 맞춰 빈 칸으로 채움 (세로 7칸 = 일~토)
+  for (let i = 0; i < from.getDay(); i++) cells.push(null);
+  for (let i = 0; i < activity.days; i++) {
+    const date = new Date(from);
+    date.setDate(from.getDate() + i);
+    const active = ((bytes.charCodeAt(i >> 3) >> (i & 7)) & 1) === 1;
+    cells.push({ date: date.toLocaleDateString(), active });
+  }
+  return cells;
+}
+
 function removeMarkdownCodeBlocks(text) {
   if (!text) return '';
   // Remove only prefix/suffix ```markdown or ``` if present
@@ -65,7 +81,9 @@ function removeMarkdownCodeBlocks(text) {
 }
 
 function Dashboard() {
-  const [notes, setNotes] = useState([]);
+  const [timeline, setTimeline] = useState([]); // [{days, count}]
+  const [stats, setStats] = useState(null); // 서버가 증분으로 관리하는 사용자 통계
+  const [activity, setActivity] = useState(null); // 최근 1년 복습 활동 비트맵
   const [reviewList, setReviewList] = useState([]);
   const [userId, setUserId] = useState(null);
   const [loading, setLoading] = useState(false);
@@ -88,42 +106,46 @@ function Dashboard() {
     setUserId(uid);
   }, []);
 
-  // 노트/복습 히스토리 불러오기
-  const fetchNotes = () => {
-    if (!userId) return;
+  // 오늘의 복습: 서버가 복습일(1/3/7/30일차)인 노트만 골라서 내려줌
+  const fetchReviews = () => {
+    if (!userId) return Promise.resolve();
     setLoading(true);
-    api.get(`/api/notes/user/${userId}`)
+    return api.get('/api/reviews/due')
       .then(res => {
-        setNotes(res.data);
-        // 오늘의 복습 리스트: 모든 노트(복습 완료 여부와 무관하게)
-        const today = new Date();
-        const todayDate = new Date(today.getFullYear(), today.getMonth(), today.getDate());
-        const todayStr = today.getFullYear() + '-' +
-          String(today.getMonth() + 1).padStart(2, '0') + '-' +
-          String(today.getDate()).padStart(2, '0');
-        const reviews = res.data.map(note => {
-          const days = Math.floor((todayDate - new Date(note.createdAt)) / (1000 * 60 * 60 * 24)) + 1;
-          const stage = getReviewStage(days);
-          const completed = note.lastReviewedDate === todayStr;
-          return {
-            ...note,
-            days,
-            reviewStage: completed ? '복습 완료' : stage,
-            completed
-          };
-        }).filter(item => item.reviewStage !== '복습 없음'); // 0일차(당일) 및 복습 없음 제외
-
-        console.log(reviews);
-        setReviewList(reviews);
-        setLoading(false);
-      });
+        setReviewList(res.data);
+      })
+      .finally(() => setLoading(false));
+  };
+
+  // 망각곡선 마커: 경과일별 노트 수만 받아옴
+  const fetchTimeline = () => {
+    if (!userId) return;
+    api.get('/api/reviews/timeline').then(res => setTimeline(res.data));
+  };
+
+  // 대시보드 통계: 카테고리별 노트 수, 연속 복습 일수, 오늘 복습할 노트 수 (행 하나만 읽음)
+  const fetchStats = () => {
+    if (!userId) return;
+    api.get(`/api/users/${userId}/stats`).then(res => setStats(res.data)).catch(() => {});
+    api.get(`/api/users/${userId}/activity`, { params: { days: 365 } })
+      .then(res => setActivity(res.data)).catch(() => {});
   };
 
   useEffect(() => {
-    fetchNotes();
+    fetchReviews();
+    fetchTimeline();
+    fetchStats();
     // eslint-disable-next-line
   }, [userId]);
 
+  // 복습 모달: 목록에는 요약 본문이 없으므로 클릭 시 노트 상세를 불러옴
+  const openReviewModal = async (item) => {
+    setModalNote(item);
+    setModalOpen(true);
+    const res = await api.get(`/api/notes/${item.id}`);
+    setModalNote(prev => (prev && prev.id === item.id ? { ...item, content: res.data.content } : prev));
+  };
+
   // 복습 리스트 정렬 함수
   function getReviewStageOrder(stage) {
     if (stage === '1차 복습') return 1;
@@ -156,7 +178,9 @@ function Dashboard() {
       category: '테스트',
       userId: userId
     });
-    fetchNotes();
+    fetchReviews();
+    fetchTimeline();
+    fetchStats();
   };
 
   // 복습 완료 여부 판별 함수
@@ -174,40 +198,23 @@ function Dashboard() {
   const handleCompleteReview = async (noteId) => {
     await api.patch(`/api/notes/${noteId}/review`);
     setModalOpen(false);
-    await fetchNotes();
+    await fetchReviews();
+    fetchStats();
   };
 
   // 복습 모달 내 [복습 미완료] 버튼 클릭 시 PATCH 요청
   const handleIncompleteReview = async (noteId) => {
     await api.patch(`/api/notes/${noteId}/unreview`); // 백엔드에서 lastReviewedDate를 null로 처리하는 엔드포인트 필요
     setModalOpen(false);
-    await fetchNotes();
+    await fetchReviews();
+    fetchStats();
   };
 
   // 망각곡선: 각 경과일(x)마다 ReferenceDot 1개만, label에 노트 개수 표시
-  const today2 = new Date();
-  const todayDate2 = new Date(today2.getFullYear(), today2.getMonth(), today2.getDate());
-  // 경과일별로 노트 그룹핑
-  const dayGroups = {};
-  notes.forEach(note => {
-    // console.log(note);
-    // const lastReview = note.reviewHistory && note.reviewHistory.length > 0
-    //   ? new Date(note.reviewHistory[note.reviewHistory.length - 1])
-    //   : new Date(note.createdAt);
-    // const lastReviewDate = new Date(lastReview.getFullYear(), lastReview.getMonth(), lastReview.getDate());
-    const createdAt = new Date(note.createdAt);
-    const days = Math.floor((todayDate2 - createdAt) / (1000 * 60 * 60 * 24)) + 1;
-    if (!dayGroups[days]) dayGroups[days] = [];
-    dayGroups[days].push(note);
- // console.log(dayGroups);
-  });
-  
-  // ReferenceDot 데이터: 각 days에 1개, label에 노트 개수
-  const noteMarkers = Object.entries(dayGroups).map(([days, notesAtDay]) => ({
-    days: Number(days),
+  const noteMarkers = timeline.map(({ days, count }) => ({
+    days,
     memory: getMemoryRetention(Math.min(days, 30)),
-    count: notesAtDay.length,
-    notes: notesAtDay
+    count
   }));
 
   return (
@@ -261,6 +268,55 @@ function Dashboard() {
 </section>
 
 
+      {stats && (
+        <div className="dashboard-row stats-row">
+          <div className="stat-card">
+            <div className="stat-value">{stats.noteCount}</div>
+            <div className="stat-label">전체 노트</div>
+          </div>
+          <div className="stat-card">
+            <div className="stat-value">{stats.currentStreak}일</div>
+            <div className="stat-label">연속 복습 (최장 {stats.longestStreak}일)</div>
+          </div>
+          <div className="stat-card">
+            <div className="stat-value">{stats.reviewedToday} / {stats.dueToday}</div>
+            <div className="stat-label">
+              오늘 복습 ({Object.entries(stats.dueByStage || {})
+                .filter(([, count]) => count > 0)
+                .map(([stage, count]) => `${stage} ${count}`)
+                .join(', ') || '없음'})
+            </div>
+          </div>
+          <div className="stat-card">
+            <div className="stat-value">{Object.keys(stats.notesByCategory || {}).length}</div>
+            <div className="stat-label">
+              {Object.entries(stats.notesByCategory || {})
+                .sort((a, b) => b[1] - a[1])
+                .slice(0, 3)
+                .map(([category, count]) => `${category} ${count}`)
+                .join(', ') || '카테고리'}
+            </div>
+          </div>
+        </div>
+      )}
+
+      {activity && (
+        <div className="dashboard-row">
+          <div className="activity-section">
+            <div className="stat-label">최근 1년 복습한 날 {activity.activeDays}일</div>
+            <div className="activity-grid">
+              {decodeActivity(activity).map((cell, i) => (
+                <div
+                  key={i}
+                  className={`activity-cell${cell ? (cell.active ? ' active' : '') : ' empty'}`}
+                  title={cell ? `${cell.date}${cell.active ? ' 복습함' : ''}` : undefined}
+                />
+              ))}
+            </div>
+          </div>
+        </div>
+      )}
+
       {/* 상단: 망각곡선 전체 가로 */}
       <div className="dashboard-row">
         <div className="chart-section full-width">
@@ -331,7 +387,7 @@ function Dashboard() {
                   <div
                     key={item.id}
                     className="review-item review-card"
-                    onClick={() => { setModalNote(item); setModalOpen(true); }}
+                    onClick={() => openReviewModal(item)}
                     style={{ cursor: 'pointer' }}
                   >
                     <div className="review-title-row">
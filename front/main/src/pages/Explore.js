@@ -1,29 +1,70 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef, useCallback } from 'react';
 import { api } from '../utils/api';
 import { useNavigate } from 'react-router-dom';
 import './Notes.css';
 
+const PAGE_SIZE = 20;
+
 function Explore() {
   const [notes, setNotes] = useState([]);
   const [search, setSearch] = useState('');
+  const [keyword, setKeyword] = useState('');
   const [category, setCategory] = useState('전체');
   const [categories, setCategories] = useState(['전체']);
+  const [trendingKeywords, setTrendingKeywords] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loading, setLoading] = useState(false);
+  const sentinelRef = useRef(null);
   const navigate = useNavigate();
 
+  // 과목 목록과 인기 키워드는 서버가 증분으로 집계한 패싯에서
   useEffect(() => {
-    api.get('/api/notes/public').then(res => {
-      setNotes(res.data);
-      // 과목명(타이틀) 기준으로 카테고리 생성
-      const cats = Array.from(new Set(res.data.map(note => note.title)));
-      setCategories(['전체', ...cats]);
-    });
+    api.get('/api/notes/facets', { params: { limit: 50 } }).then(res => {
+      setCategories(['전체', ...res.data.titles.map(facet => facet.value)]);
+      setTrendingKeywords(res.data.trendingKeywords.slice(0, 10));
+    }).catch(() => {});
   }, []);
 
-  const filteredNotes = notes.filter(note => {
-    const keywordMatch = search === '' || (note.keywords && note.keywords.some(k => k.includes(search)));
-    const categoryMatch = category === '전체' || note.title === category;
-    return keywordMatch && categoryMatch;
-  });
+  // 키워드 입력은 잠시 멈췄을 때만 서버에 조회
+  useEffect(() => {
+    const timer = setTimeout(() => setKeyword(search.trim()), 300);
+    return () => clearTimeout(timer);
+  }, [search]);
+
+  const fetchPage = useCallback(async (cursor) => {
+    setLoading(true);
+    try {
+      const params = { size: PAGE_SIZE, fields: 'title,category,keywords,description,createdAt,userName' };
+      if (cursor) params.cursor = cursor;
+      if (category !== '전체') params.title = category;
+      if (keyword) params.keyword = keyword;
+      const res = await api.get('/api/notes/public/feed', { params });
+      setNotes(prev => (cursor ? [...prev, ...res.data.items] : res.data.items));
+      setNextCursor(res.data.nextCursor);
+    } finally {
+      setLoading(false);
+    }
+  }, [category, keyword]);
+
+  // 필터가 바뀌면 첫 페이지부터 다시
+  useEffect(() => {
+    fetchPage(null);
+  }, [fetchPage]);
+
+  // 목록 끝이 보이면 다음 페이지
+  useEffect(() => {
+    const sentinel = sentinelRef.current;
+    if (!sentinel || !nextCursor) return;
+    const observer = new IntersectionObserver(entries => {
+      if (entries[0].isIntersecting && !loading) {
+        fetchPage(nextCursor);
+      }
+    });
+    observer.observe(sentinel);
+    return () => observer.disconnect();
+  }, [nextCursor, loading, fetchPage]);
+
+  const filteredNotes = notes;
 
   const handleShowDetail = (note) => navigate(`/notes/${note.id}`);
   const handleQuiz = (note) => navigate(`/notes/${note.id}/quiz`);
@@ -87,6 +128,21 @@ function Explore() {
             }}
           />
         </div>
+        {trendingKeywords.length > 0 && (
+          <div className="note-keywords" style={{ justifyContent: 'center', marginTop: 12 }}>
+            <span style={{ color: '#888', marginRight: 4 }}>인기 키워드</span>
+            {trendingKeywords.map(facet => (
+              <span
+                key={facet.value}
+                className="keyword"
+                style={{ cursor: 'pointer' }}
+                onClick={() => setSearch(facet.value)}
+              >
+                #{facet.value} {facet.count}
+              </span>
+            ))}
+          </div>
+        )}
       </div>
       <div className="notes-content">
         {filteredNotes.length === 0 ? (
@@ -124,6 +180,7 @@ function Explore() {
             ))}
           </div>
         )}
+        <div ref={sentinelRef} style={{ height: 1 }} />
       </div>
     </div>
   );
@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { api } from '../utils/api';
+import { api, waitForGeneration, streamGeneration, imageVariantUrl } from '../utils/api';
 import ReactMarkdown from 'react-markdown';
 import remarkGfm from 'remark-gfm';
 import remarkMath from 'remark-math';
@@ -20,6 +20,10 @@ import 'highlight.js/styles/github.css';
 
 pdfjs.GlobalWorkerOptions.workerSrc = '/pdf.worker.min.js';
 
+// 서버가 Range를 지원하므로 전체를 미리 받지 않고 보이는 페이지에 필요한 구간만 요청
+const PDF_OPTIONS = { disableAutoFetch: true, disableStream: true, rangeChunkSize: 65536 };
+const PDF_PAGE_BATCH = 2;
+
 function removeMarkdownCodeBlocks(text) {
   if (!text) return '';
   return text
@@ -40,9 +44,12 @@ function NoteDetail() {
   const [note, setNote] = useState(null);
   const [previewOpen, setPreviewOpen] = useState(false);
   const [numPages, setNumPages] = useState(null);
+  const [renderedPages, setRenderedPages] = useState(PDF_PAGE_BATCH);
   const [pdfError, setPdfError] = useState(null);
   const navigate = useNavigate();
   const [modalImageIdx, setModalImageIdx] = useState(0);
+  // 생성 중인 요약 (SSE로 받은 조각을 이어 붙인 것). null이면 저장된 content를 보여준다
+  const [streamingSummary, setStreamingSummary] = useState(null);
 
   useEffect(() => {
     if (!previewOpen) return;
@@ -58,7 +65,41 @@ function NoteDetail() {
   }, [previewOpen, note]);
 
   useEffect(() => {
-    api.get(`/api/notes/${noteId}`).then((res) => setNote(res.data));
+    let cancelled = false;
+    let unsubscribe = () => {};
+    const reload = async () => {
+      const updated = await api.get(`/api/notes/${noteId}`);
+      if (!cancelled) {
+        setNote(updated.data);
+        setStreamingSummary(null);
+      }
+    };
+    api.get(`/api/notes/${noteId}`).then((res) => {
+      if (cancelled) return;
+      setNote(res.data);
+      // 요약이 아직 생성 중이면 만들어지는 대로 보여 주고, 끝나면 다시 불러오기
+      if (res.data.generationStatus === 'PENDING' || res.data.generationStatus === 'RUNNING') {
+        let finished = false;
+        unsubscribe = streamGeneration(noteId, (name, data) => {
+          if (cancelled) return;
+          if (name === 'snapshot') setStreamingSummary(data.summary || '');
+          else if (name === 'status' && data.status === 'RUNNING') setStreamingSummary('');
+          else if (name === 'summary') setStreamingSummary((prev) => (prev || '') + data.delta);
+          else if (name === 'done') {
+            finished = true;
+            reload().catch(() => {});
+          }
+        }, () => {
+          if (cancelled || finished) return;
+          // 스트림을 못 쓰면(프록시 등) 예전처럼 상태 폴링
+          waitForGeneration(noteId).then(reload).catch(() => {});
+        });
+      }
+    });
+    return () => {
+      cancelled = true;
+      unsubscribe();
+    };
   }, [noteId]);
 
   useEffect(() => {
@@ -73,7 +114,7 @@ function NoteDetail() {
 
   if (!note) return <div style={{ padding: 40 }}>로딩 중...</div>;
 
-  const parsedContent = removeMarkdownCodeBlocks(note.content);
+  const parsedContent = removeMarkdownCodeBlocks(streamingSummary !== null ? streamingSummary : note.content);
   const handleEdit = () => {
     const userId = localStorage.getItem('userId');
     if (String(note.userId) !== String(userId)) {
@@ -166,7 +207,7 @@ function NoteDetail() {
             remarkPlugins={[remarkGfm, remarkMath]}
             rehypePlugins={[rehypeRaw, rehypeKatex, rehypeHighlight]}
           >
-            {parsedContent || '내용 없음'}
+            {parsedContent || (streamingSummary !== null ? '요약을 생성하고 있습니다...' : '내용 없음')}
           </ReactMarkdown>
         </div>
       </div>
@@ -204,15 +245,23 @@ function NoteDetail() {
                 background: '#fff',
                 cursor: 'pointer',
               }}
+              onScroll={(e) => {
+                // 스크롤이 끝에 가까워지면 다음 페이지를 렌더링 (해당 구간만 요청됨)
+                const el = e.currentTarget;
+                if (el.scrollTop + el.clientHeight >= el.scrollHeight - 200) {
+                  setRenderedPages((n) => Math.min(numPages || n, n + PDF_PAGE_BATCH));
+                }
+              }}
             >
               <Document
                 file={getFullUrl(note.pdfUrl)}
+                options={PDF_OPTIONS}
                 onLoadSuccess={({ numPages }) => setNumPages(numPages)}
                 onLoadError={(err) => setPdfError(err?.message || 'PDF 로드 실패')}
                 loading={<div style={{ padding: 40 }}>PDF 로딩 중...</div>}
               >
                 {numPages &&
-                  Array.from({ length: numPages }, (_, i) => (
+                  Array.from({ length: Math.min(numPages, renderedPages) }, (_, i) => (
                     <Page key={i + 1} pageNumber={i + 1} width={320} />
                   ))}
               </Document>
@@ -243,8 +292,14 @@ function NoteDetail() {
             {note.imageUrls.map((url, idx) => (
               <div key={idx} style={{ marginBottom: 16 }}>
                 <img
-                  src={getFullUrl(url)}
+                  src={getFullUrl(imageVariantUrl(url, 'display'))}
                   alt={`노트 이미지${idx + 1}`}
+                  loading="lazy"
+                  onError={(e) => {
+                    // 파생 이미지가 없는 예전 업로드는 원본으로
+                    const original = getFullUrl(url);
+                    if (e.currentTarget.src !== original) e.currentTarget.src = original;
+                  }}
                   style={{
                     width: '100%',
                     maxHeight: 380,
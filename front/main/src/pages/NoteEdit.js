@@ -56,7 +56,7 @@ function NoteEdit() {
     let userId = localStorage.getItem('userId');
     Promise.all([
       api.get(`/api/notes/${noteId}`),
-      userId ? api.get(`/api/notes/user/${userId}`) : Promise.resolve({data: []})
+      userId ? api.get(`/api/notes/user/${userId}`, { params: { fields: 'title' } }) : Promise.resolve({data: []})
     ]).then(([noteRes, notesRes]) => {
       console.log('noteRes', noteRes.data);
       setNote(noteRes.data);
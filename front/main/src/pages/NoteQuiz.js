@@ -1,7 +1,7 @@
 // main/front/main/src/pages/NoteQuiz.js
 import React, { useEffect, useState } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { api, aiApi } from '../utils/api';
+import { api, aiApi, waitForGeneration } from '../utils/api';
 import ReactMarkdown from 'react-markdown';
 import remarkGfm from 'remark-gfm';
 import remarkMath from 'remark-math';
@@ -39,7 +39,10 @@ function NoteQuiz() {
   // 퀴즈 재생성
   const handleRetryQuiz = async () => {
     try {
-      await api.post(`/api/notes/${noteId}/quiz/retry`);
+      // 이미 퀴즈가 있으면 다른 문제를 원하는 것이므로 캐시된 결과 대신 새로 생성
+      await api.post(`/api/notes/${noteId}/quiz/retry`, null, { params: { fresh: quiz.length > 0 } });
+      showSnackbar('퀴즈를 생성하고 있습니다...', 'info');
+      await waitForGeneration(noteId);
       const res = await api.get(`/api/notes/${noteId}/quiz`);
       setQuiz(res.data);
       if (res.data.length > 0) {
@@ -48,6 +51,11 @@ function NoteQuiz() {
         showSnackbar('퀴즈 생성에 실패했습니다.', 'error');
       }
     } catch (e) {
+      if (e.response?.status === 429) {
+        const retryAfter = e.response.headers['retry-after'];
+        showSnackbar(`AI 요청이 많습니다. ${retryAfter ? `${retryAfter}초 후 ` : '잠시 후 '}다시 시도해 주세요.`, 'info');
+        return;
+      }
       showSnackbar('퀴즈 생성 중 오류가 발생했습니다.', 'error');
     }
   };
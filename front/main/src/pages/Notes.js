@@ -16,7 +16,8 @@ function Notes() {
   useEffect(() => {
     const userId = localStorage.getItem('userId');
     if (!userId) return;
-    api.get(`/api/notes/user/${userId}`)
+    // 카드에 보이는 필드만 받는다
+    api.get(`/api/notes/user/${userId}`, { params: { fields: 'title,category,keywords,description,createdAt' } })
       .then(res => {
         setNotes(res.data);
         const cats = Array.from(new Set(res.data.map(note => note.title)));
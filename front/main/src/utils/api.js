@@ -23,4 +23,61 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
-export { api, aiApi }; 
\ No newline at end of file
+// AI 생성 작업(요약/퀴즈)이 끝날 때까지 상태를 폴링
+const waitForGeneration = async (noteId, { intervalMs = 2000, timeoutMs = 300000 } = {}) => {
+  const deadline = Date.now() + timeoutMs;
+  while (Date.now() < deadline) {
+    const res = await api.get(`/api/notes/${noteId}/generation`);
+    if (res.data.status === 'DONE' || res.data.status === 'FAILED') {
+      return res.data;
+    }
+    await new Promise(resolve => setTimeout(resolve, intervalMs));
+  }
+  throw new Error('생성 대기 시간이 초과되었습니다.');
+};
+
+// 생성 진행 상황(SSE) 구독. EventSource는 Authorization 헤더를 붙일 수 없어 fetch 스트림으로 직접 읽는다
+// onEvent(name, data): snapshot {status, summary} | status {status} | summary {delta} | quiz {count} | done {status}
+// 반환값은 구독 취소 함수. 연결이 끝나면(done 포함) onClose(error) 호출
+const streamGeneration = (noteId, onEvent, onClose = () => {}) => {
+  const controller = new AbortController();
+  const token = localStorage.getItem('token');
+  (async () => {
+    const res = await fetch(`${API_BASE_URL || ''}/api/notes/${noteId}/generation/stream`, {
+      headers: { Accept: 'text/event-stream', ...(token ? { Authorization: `Bearer ${token}` } : {}) },
+      signal: controller.signal,
+    });
+    if (!res.ok || !res.body) throw new Error(`stream failed: ${res.status}`);
+    const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) break;
+      buffer += value;
+      let sep;
+      // 이벤트는 빈 줄로 구분된다
+      while ((sep = buffer.indexOf('\n\n')) !== -1) {
+        const block = buffer.slice(0, sep);
+        buffer = buffer.slice(sep + 2);
+        let name = 'message';
+        const data = [];
+        block.split('\n').forEach((line) => {
+          if (line.startsWith('event:')) name = line.slice(6).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(5));
+        });
+        if (data.length > 0) onEvent(name, JSON.parse(data.join('\n')));
+      }
+    }
+  })().then(() => onClose(null), (e) => { if (e.name !== 'AbortError') onClose(e); });
+  return () => controller.abort();
+};
+
+// 업로드 blob(/uploads/ab/cd/<sha256>.ext)의 파생 이미지 URL. blob이 아니면 원본 그대로
+// variant: 'thumb' | 'display' | 'ai'
+const BLOB_URL = /^\/uploads\/[0-9a-f]{2}\/[0-9a-f]{2}\/([0-9a-f]{64})(\.[a-z0-9]{1,10})?$/;
+const imageVariantUrl = (url, variant) => {
+  const match = url && url.match(BLOB_URL);
+  return match ? `/uploads/derived/${match[1]}/${variant}.jpg` : url;
+};
+
+export { api, aiApi, waitForGeneration, streamGeneration, imageVariantUrl }; 
\ No newline at end of file